@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Compare throughput and tail latency of the default Tomcat platform-thread pool against the
+# virtual-thread deployment mode at high concurrency. Requires JDK 21 and a running MySQL
+# configured for the application.
+#
+# Usage: scripts/bench-virtual-threads.sh <path> [concurrency] [durationSeconds]
+#   e.g. scripts/bench-virtual-threads.sh "/api/v1/products?size=20" 1000 60
+# Results are appended as JSON lines to target/virtual-threads-bench.jsonl.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+BENCH_PATH="${1:?request path to benchmark, e.g. /api/v1/products?size=20}"
+CONCURRENCY="${2:-1000}"
+DURATION="${3:-60}"
+PORT="${PORT:-8080}"
+RESULTS="target/virtual-threads-bench.jsonl"
+
+./mvnw -q -Pjava21 -DskipTests package
+./mvnw -q -Pjmh,java21 test-compile dependency:build-classpath -Dmdep.outputFile=target/jmh-classpath.txt
+JAR="$(ls target/ecommerce-*.jar | head -n 1)"
+CLASSPATH="target/test-classes:target/classes:$(cat target/jmh-classpath.txt)"
+
+run_mode() {
+  local label="$1"; shift
+  java -Djdk.tracePinnedThreads=short "$@" -jar "$JAR" --server.port="$PORT" > "target/bench-$label.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+  until curl -s -o /dev/null "http://localhost:$PORT$BENCH_PATH"; do sleep 1; done
+  java -cp "$CLASSPATH" com.example.ecommerce.benchmark.HttpLoadBenchmark \
+    "http://localhost:$PORT$BENCH_PATH" "$CONCURRENCY" "$DURATION" "$label" "$RESULTS"
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  if grep -q "pinned" "target/bench-$label.log"; then
+    echo "WARNING: virtual thread pinning reported, see target/bench-$label.log"
+  fi
+}
+
+run_mode platform-threads
+run_mode virtual-threads -Dspring.profiles.active=virtual
+echo "Results in $RESULTS"
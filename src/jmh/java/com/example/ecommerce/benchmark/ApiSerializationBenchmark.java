@@ -0,0 +1,68 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.dto.error.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response envelopes, configured as Spring Boot configures it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiSerializationBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int payloadSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Map<String, Object>>> apiResponse;
+    private ErrorResponse errorResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<Map<String, Object>> products = new ArrayList<>();
+        for (int i = 0; i < payloadSize; i++) {
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("id", (long) i);
+            product.put("name", "Product " + i);
+            product.put("price", BigDecimal.valueOf(1999 + i, 2));
+            product.put("stockQuantity", 100 + i);
+            product.put("active", true);
+            products.add(product);
+        }
+        apiResponse = ApiResponse.success(products, "Products retrieved");
+        List<String> details = new ArrayList<>();
+        for (int i = 0; i < payloadSize; i++) {
+            details.add("field" + i + ": must not be blank");
+        }
+        errorResponse = new ErrorResponse(400, "BAD_REQUEST", "Validation failed", "/api/v1/products", details);
+    }
+
+    @Benchmark
+    public byte[] serializeApiResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(apiResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeErrorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+}
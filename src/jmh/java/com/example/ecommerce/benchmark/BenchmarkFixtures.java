@@ -0,0 +1,44 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.model.Cart;
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderItem;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/** Detached entity graphs for benchmarks - no persistence context involved */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    static Category category() {
+        return Category.create("Benchmarks", "Benchmark fixtures").setId(1L);
+    }
+
+    static Product product(long id, Category category, Random random) {
+        BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(99_900), 2);
+        Product product = Product.create("Product " + id, "Benchmark product " + id, price, 1_000, category);
+        product.setId(id);
+        return product;
+    }
+
+    static Cart cart(int lines) {
+        Random random = new Random(42);
+        Category category = category();
+        Cart cart = new Cart(User.createBasic("bench", "bench@example.com", "x"));
+        for (long id = 1; id <= lines; id++) {
+            cart.addItem(product(id, category, random), 1 + random.nextInt(5));
+        }
+        return cart;
+    }
+
+    static Order order(Cart cart) {
+        Order order = new Order().setUser(cart.getUser()).setShippingAddress("1 Benchmark Way");
+        cart.getItems().forEach(item -> order.getOrderItems().add(OrderItem.fromCartItem(order, item)));
+        return order;
+    }
+}
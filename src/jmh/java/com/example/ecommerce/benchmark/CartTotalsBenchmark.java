@@ -0,0 +1,62 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.model.Cart;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.pricing.CartQuote;
+import com.example.ecommerce.pricing.ProductPriceTable;
+import com.example.ecommerce.search.ProductFacetRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart and order aggregate computations over 1-500 lines.
+ *
+ * cartQuoteFromPriceTable prices the same cart from ProductPriceTable (long minor units,
+ * primitive-keyed lookups) instead of BigDecimal arithmetic over the Product entities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartTotalsBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    private int lines;
+
+    private Cart cart;
+    private Order order;
+    private ProductPriceTable priceTable;
+
+    @Setup
+    public void setUp() {
+        cart = BenchmarkFixtures.cart(lines);
+        order = BenchmarkFixtures.order(cart);
+        priceTable = new ProductPriceTable(1_000);
+        cart.getItems().forEach(item -> priceTable.apply(new ProductFacetRow(item.getProduct().getId(), 1L,
+                item.getProduct().getPrice(), item.getProduct().getStockQuantity(), true)));
+    }
+
+    @Benchmark
+    public BigDecimal cartTotalPrice() {
+        return cart.getTotalPrice();
+    }
+
+    @Benchmark
+    public CartQuote cartQuoteFromPriceTable() {
+        return cart.quote(priceTable);
+    }
+
+    @Benchmark
+    public int cartTotalItems() {
+        return cart.getTotalItems();
+    }
+
+    @Benchmark
+    public BigDecimal orderCalculateTotalAmount() {
+        return order.calculateTotalAmount();
+    }
+}
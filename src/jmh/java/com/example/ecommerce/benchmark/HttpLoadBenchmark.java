@@ -0,0 +1,142 @@
+package com.example.ecommerce.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load generator used to compare the platform-thread and virtual-thread
+ * deployment modes (see scripts/bench-virtual-threads.sh). Unlike the JMH benchmarks this
+ * measures the whole server: N clients each send requests back-to-back for a fixed duration.
+ *
+ * Usage: HttpLoadBenchmark url concurrency durationSeconds [label] [resultFile] [bearerToken]
+ * Prints one JSON line with throughput and latency percentiles, appended to resultFile if given.
+ */
+public class HttpLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: HttpLoadBenchmark url concurrency durationSeconds [label] [resultFile] [bearerToken]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[2]));
+        String label = args.length > 3 ? args[3] : "run";
+        Path resultFile = args.length > 4 ? Path.of(args[4]) : null;
+        String bearerToken = args.length > 5 ? args[5] : null;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.min(concurrency, 64)))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        if (bearerToken != null) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        HttpRequest request = builder.build();
+
+        // Warm up the server's JIT and connection pool before measuring
+        runClients(client, request, concurrency, Math.min(durationNanos, TimeUnit.SECONDS.toNanos(10)));
+        long started = System.nanoTime();
+        List<WorkerResult> results = runClients(client, request, concurrency, durationNanos);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        int total = 0;
+        long errors = 0;
+        for (WorkerResult result : results) {
+            total += result.count;
+            errors += result.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (WorkerResult result : results) {
+            System.arraycopy(result.latencies, 0, latencies, offset, result.count);
+            offset += result.count;
+        }
+        Arrays.sort(latencies);
+
+        String json = String.format(
+                "{\"label\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                        + "\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"p999Ms\":%.2f,\"maxMs\":%.2f}",
+                label, concurrency, total, errors, total / elapsedSeconds,
+                percentileMs(latencies, 0.50), percentileMs(latencies, 0.90), percentileMs(latencies, 0.99),
+                percentileMs(latencies, 0.999), total == 0 ? 0.0 : latencies[total - 1] / 1e6);
+        System.out.println(json);
+        if (resultFile != null) {
+            Files.writeString(resultFile, json + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        System.exit(0);
+    }
+
+    private static List<WorkerResult> runClients(HttpClient client, HttpRequest request,
+                                                 int concurrency, long durationNanos) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + durationNanos;
+        List<Future<WorkerResult>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> runClient(client, request, deadline)));
+        }
+        List<WorkerResult> results = new ArrayList<>();
+        for (Future<WorkerResult> future : futures) {
+            results.add(future.get());
+        }
+        workers.shutdown();
+        return results;
+    }
+
+    private static WorkerResult runClient(HttpClient client, HttpRequest request, long deadline) {
+        WorkerResult result = new WorkerResult();
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    result.errors++;
+                }
+            } catch (IOException e) {
+                result.errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            result.record(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static final class WorkerResult {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (e.g. the last release's against the current build) and
+ * exits non-zero if any benchmark got slower by more than the threshold.
+ *
+ * Usage: JmhRegressionCheck baseline.json current.json [thresholdPercent, default 10]
+ * Only average-time/sample-time style scores (lower is better) and throughput scores
+ * (higher is better) are compared; the direction is taken from each result's mode.
+ */
+public class JmhRegressionCheck {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhRegressionCheck baseline.json current.json [thresholdPercent]");
+            System.exit(1);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %-80s %12.3f %s%n", entry.getKey(), entry.getValue().score, entry.getValue().unit);
+                continue;
+            }
+            Result after = entry.getValue();
+            double change = (after.score - before.score) / before.score * 100.0;
+            double slowdown = after.higherIsBetter ? -change : change;
+            boolean regressed = slowdown > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %-80s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSED" : "ok", entry.getKey(), before.score, after.score, after.unit, change);
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(2);
+        }
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(node.path("benchmark").asText());
+            node.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            JsonNode metric = node.path("primaryMetric");
+            String mode = node.path("mode").asText();
+            results.put(key.toString(), new Result(metric.path("score").asDouble(),
+                    metric.path("scoreUnit").asText(), "thrpt".equals(mode)));
+        }
+        return results;
+    }
+
+    private record Result(double score, String unit, boolean higherIsBetter) {}
+}
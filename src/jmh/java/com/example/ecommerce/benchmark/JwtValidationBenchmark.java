@@ -0,0 +1,75 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.security.JWTUtils;
+import com.example.ecommerce.security.VerifiedToken;
+import com.example.ecommerce.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing cost, and the per-request cost of turning a bearer token into a username
+ * in AuthTokenFilter.
+ *
+ * legacyDoubleParse reproduces the original filter: validateJwtToken + getUserNameFromJwtToken,
+ * each decoding the secret and building a parser. singleParse is a cache miss on the new path,
+ * cachedLookup a cache hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    static final String SECRET = "bXlTZWNyZXRLZXlGb3JKV1RUb2tlbkdlbmVyYXRpb25BbmRWYWxpZGF0aW9u";
+
+    private JWTUtils jwtUtils;
+    private VerifiedTokenCache cache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = newJwtUtils();
+        cache = new VerifiedTokenCache(10_000);
+        token = jwtUtils.generateTokenFromUserName("benchmark-user");
+        cache.put(token, jwtUtils.parseVerifiedToken(token));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateTokenFromUserName("benchmark-user");
+    }
+
+    @Benchmark
+    public String legacyDoubleParse() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return jwtUtils.parseVerifiedToken(token).subject();
+    }
+
+    @Benchmark
+    public String cachedLookup() {
+        VerifiedToken verified = cache.get(token);
+        return verified != null ? verified.subject() : jwtUtils.parseVerifiedToken(token).subject();
+    }
+
+    static JWTUtils newJwtUtils() {
+        JWTUtils jwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.model.Cart;
+import com.example.ecommerce.model.CartItem;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting every cart line to an OrderItem, as checkout does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderItemConversionBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    private int lines;
+
+    private Cart cart;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        cart = BenchmarkFixtures.cart(lines);
+        order = new Order();
+    }
+
+    @Benchmark
+    public void fromCartItem(Blackhole blackhole) {
+        for (CartItem item : cart.getItems()) {
+            blackhole.consume(OrderItem.fromCartItem(order, item));
+        }
+    }
+}
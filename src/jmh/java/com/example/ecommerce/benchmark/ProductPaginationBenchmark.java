@@ -0,0 +1,181 @@
+package com.example.ecommerce.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OFFSET vs keyset pagination of the product listing, at page 1 and page 10,000.
+ *
+ * Runs the statements ProductRepository issues (same predicates, ordering and indexes as the
+ * products table) against an in-memory H2 database, so the numbers show the shape of the cost:
+ * OFFSET reads and discards (page - 1) * size index entries, keyset seeks straight to the cursor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int CATEGORIES = 4;
+    // One row in 25 of a category is inactive (see populate), so this leaves about 211,000 active
+    // rows: page 10,000 (rows 199,981 to 200,000) stays full for both listings
+    private static final int ROWS_PER_CATEGORY = 11_000 * PAGE_SIZE;
+    private static final long CATEGORY_ID = 1L;
+
+    private static final String COLUMNS = "select p.id, p.category_id, p.name, p.price, p.stock_quantity from products p ";
+
+    @Param({"1", "10000"})
+    private int page;
+
+    private Connection connection;
+    private PreparedStatement offsetByCategory;
+    private PreparedStatement keysetByCategory;
+    private PreparedStatement offsetByPrice;
+    private PreparedStatement keysetByPrice;
+
+    private long categoryCursorId;
+    private BigDecimal priceCursorPrice;
+    private long priceCursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:pagination;DB_CLOSE_DELAY=-1");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table if exists products");
+            ddl.execute("create table products (id bigint primary key, category_id bigint not null, " +
+                    "name varchar(200), price decimal(10,2), stock_quantity int, active boolean not null)");
+            ddl.execute("create index idx_products_category_active_id on products (category_id, active, id)");
+            ddl.execute("create index idx_products_active_price_id on products (active, price, id)");
+        }
+        populate();
+
+        offsetByCategory = connection.prepareStatement(COLUMNS +
+                "where p.category_id = ? and p.active = true order by p.id limit ? offset ?");
+        keysetByCategory = connection.prepareStatement(COLUMNS +
+                "where p.category_id = ? and p.active = true and p.id > ? order by p.id limit ?");
+        offsetByPrice = connection.prepareStatement(COLUMNS +
+                "where p.active = true order by p.price, p.id limit ? offset ?");
+        keysetByPrice = connection.prepareStatement(COLUMNS +
+                "where p.active = true and p.price >= ? and (p.price > ? or p.id > ?) order by p.price, p.id limit ?");
+
+        // Cursor = last row of the previous page, as a client would hold after paging this far
+        if (page > 1) {
+            long lastRow = (long) (page - 1) * PAGE_SIZE - 1;
+            try (PreparedStatement find = connection.prepareStatement(COLUMNS +
+                    "where p.category_id = ? and p.active = true order by p.id limit 1 offset ?")) {
+                find.setLong(1, CATEGORY_ID);
+                find.setLong(2, lastRow);
+                try (ResultSet rs = find.executeQuery()) {
+                    requireRow(rs, "category");
+                    categoryCursorId = rs.getLong(1);
+                }
+            }
+            try (PreparedStatement find = connection.prepareStatement(COLUMNS +
+                    "where p.active = true order by p.price, p.id limit 1 offset ?")) {
+                find.setLong(1, lastRow);
+                try (ResultSet rs = find.executeQuery()) {
+                    requireRow(rs, "price");
+                    priceCursorId = rs.getLong(1);
+                    priceCursorPrice = rs.getBigDecimal(4);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table products");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void offsetByCategory(Blackhole bh) throws SQLException {
+        offsetByCategory.setLong(1, CATEGORY_ID);
+        offsetByCategory.setInt(2, PAGE_SIZE);
+        offsetByCategory.setLong(3, (long) (page - 1) * PAGE_SIZE);
+        consume(offsetByCategory, bh);
+    }
+
+    @Benchmark
+    public void keysetByCategory(Blackhole bh) throws SQLException {
+        keysetByCategory.setLong(1, CATEGORY_ID);
+        keysetByCategory.setLong(2, categoryCursorId);
+        keysetByCategory.setInt(3, PAGE_SIZE);
+        consume(keysetByCategory, bh);
+    }
+
+    @Benchmark
+    public void offsetByPrice(Blackhole bh) throws SQLException {
+        offsetByPrice.setInt(1, PAGE_SIZE);
+        offsetByPrice.setLong(2, (long) (page - 1) * PAGE_SIZE);
+        consume(offsetByPrice, bh);
+    }
+
+    @Benchmark
+    public void keysetByPrice(Blackhole bh) throws SQLException {
+        BigDecimal price = priceCursorPrice != null ? priceCursorPrice : BigDecimal.ZERO;
+        keysetByPrice.setBigDecimal(1, price);
+        keysetByPrice.setBigDecimal(2, price);
+        keysetByPrice.setLong(3, priceCursorId);
+        keysetByPrice.setInt(4, PAGE_SIZE);
+        consume(keysetByPrice, bh);
+    }
+
+    private void populate() throws SQLException {
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into products (id, category_id, name, price, stock_quantity, active) values (?, ?, ?, ?, ?, ?)")) {
+            long total = (long) ROWS_PER_CATEGORY * CATEGORIES;
+            for (long id = 1; id <= total; id++) {
+                insert.setLong(1, id);
+                insert.setLong(2, 1 + id % CATEGORIES);
+                insert.setString(3, "Product " + id);
+                // Prices repeat, so the id tie-breaker in the (price, id) key matters
+                insert.setBigDecimal(4, BigDecimal.valueOf(100 + random.nextInt(99_900), 2));
+                insert.setInt(5, random.nextInt(500));
+                // A few inactive rows, so the active filter is part of every plan
+                insert.setBoolean(6, id % 50 != 0);
+                insert.addBatch();
+                if (id % 5_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    /** A cursor past the data would make the deep-page trial measure an empty result */
+    private void requireRow(ResultSet rs, String listing) throws SQLException {
+        if (!rs.next()) {
+            throw new IllegalStateException("Not enough active rows for page " + page + " of the " + listing
+                    + " listing; raise ROWS_PER_CATEGORY");
+        }
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole bh) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getLong(1));
+                bh.consume(rs.getBigDecimal(4));
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.event.ProductSnapshot;
+import com.example.ecommerce.search.ProductSearchIndex;
+import com.example.ecommerce.search.SearchHit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of ProductSearchIndex over a synthetic catalog of one million products.
+ *
+ * Words are drawn from a 50k-word vocabulary with a skewed distribution (a few words appear
+ * in thousands of products, most in a handful), names have 4 words and descriptions 20.
+ * Run with a large heap, e.g. -Djmh.args="ProductSearch -jvmArgs -Xmx4g".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+
+    @Param({"common", "rare", "twoWords", "prefix", "wordAndPrefix"})
+    private String query;
+
+    private ProductSearchIndex index;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + random.nextInt(6);
+            for (int c = 0; c < length; c++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+
+        index = new ProductSearchIndex(64, 10_000);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            index.apply(new ProductSnapshot(id, 1L, words(vocabulary, random, 4), words(vocabulary, random, 20),
+                    null, null, 10, true));
+        }
+
+        text = switch (query) {
+            case "common" -> vocabulary[1];
+            case "rare" -> vocabulary[20_000];
+            case "twoWords" -> vocabulary[1] + " " + vocabulary[2];
+            case "prefix" -> vocabulary[500].substring(0, 3);
+            case "wordAndPrefix" -> vocabulary[5_000] + " " + vocabulary[1].substring(0, 3);
+            default -> throw new IllegalArgumentException(query);
+        };
+    }
+
+    @Benchmark
+    public List<SearchHit> search() {
+        return index.search(text, 20);
+    }
+
+    private static String words(String[] vocabulary, Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = (int) Math.min(vocabulary.length - 1, Math.abs(random.nextGaussian()) * 3_000);
+            text.append(vocabulary[rank]).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded, concurrent cache with per-entry expiry.
+ *
+ * Reads never lock: an entry is a ConcurrentHashMap value carrying its own deadline and
+ * a "referenced" bit. Eviction uses the CLOCK (second-chance) approximation of LRU: entries
+ * are queued in insertion order, and when the cache is over its bound the head is either
+ * dropped (expired or not referenced since its last pass) or re-queued with its bit cleared.
+ * Only one thread evicts at a time; others keep going and let it catch up.
+ */
+public class BoundedCache<K, V> {
+
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final CacheStats stats = new CacheStats();
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param maxSize maximum number of live entries
+     * @param ttl default time-to-live for {@link #put(Object, Object)}, or null for no default expiry
+     */
+    public BoundedCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    public BoundedCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache maxSize must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            stats.recordMiss();
+            return null;
+        }
+        if (entry.isExpired(nanoClock.getAsLong())) {
+            if (entries.remove(key, entry)) {
+                stats.recordExpiration();
+            }
+            stats.recordMiss();
+            return null;
+        }
+        entry.referenced = true;
+        stats.recordHit();
+        return entry.value;
+    }
+
+    /** Whether a live entry exists; unlike get it neither counts a hit or miss nor marks the entry referenced */
+    public boolean containsKey(K key) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null && !entry.isExpired(nanoClock.getAsLong());
+    }
+
+    /** Return the cached value or load, cache and return it. Null results from the loader are not cached. */
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        long deadline = ttlNanos > 0 ? nanoClock.getAsLong() + ttlNanos : NO_EXPIRY;
+        putEntry(new Entry<>(key, value, deadline));
+    }
+
+    /** Cache a value that must not outlive the given remaining lifetime (e.g. a token's own expiry) */
+    public void put(K key, V value, Duration timeToLive) {
+        long remaining = timeToLive.toNanos();
+        if (remaining <= 0) {
+            return;
+        }
+        if (ttlNanos > 0) {
+            remaining = Math.min(remaining, ttlNanos);
+        }
+        putEntry(new Entry<>(key, value, nanoClock.getAsLong() + remaining));
+    }
+
+    public void invalidate(K key) {
+        if (entries.remove(key) != null) {
+            stats.recordInvalidation();
+        }
+    }
+
+    /** Drop every entry matching the predicate. Linear in the cache size, so reserve it for rare writes. */
+    public void invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+        for (Map.Entry<K, Entry<K, V>> e : entries.entrySet()) {
+            if (predicate.test(e.getKey(), e.getValue().value) && entries.remove(e.getKey(), e.getValue())) {
+                stats.recordInvalidation();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        clock.clear();
+        queued.set(0);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public CacheStats stats() {
+        return stats;
+    }
+
+    private void putEntry(Entry<K, V> entry) {
+        entries.put(entry.key, entry);
+        clock.offer(entry);
+        queued.incrementAndGet();
+        if (entries.size() > maxSize || queued.get() > 2 * maxSize) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = nanoClock.getAsLong();
+            // The queue may hold stale nodes (replaced or invalidated entries); drain those too
+            // so that churn without size pressure cannot grow it without bound.
+            while (entries.size() > maxSize || queued.get() > 2 * maxSize) {
+                Entry<K, V> head = clock.poll();
+                if (head == null) {
+                    break;
+                }
+                queued.decrementAndGet();
+                if (entries.get(head.key) != head) {
+                    continue;
+                }
+                if (head.isExpired(now)) {
+                    if (entries.remove(head.key, head)) {
+                        stats.recordExpiration();
+                    }
+                } else if (head.referenced && entries.size() <= maxSize + maxSize / 2) {
+                    head.referenced = false;
+                    clock.offer(head);
+                    queued.incrementAndGet();
+                } else if (entries.size() > maxSize) {
+                    if (entries.remove(head.key, head)) {
+                        stats.recordEviction();
+                    }
+                } else {
+                    clock.offer(head);
+                    queued.incrementAndGet();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        final long expiresAtNanos;
+        volatile boolean referenced;
+
+        Entry(K key, V value, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAtNanos != NO_EXPIRY && now - expiresAtNanos >= 0;
+        }
+    }
+}
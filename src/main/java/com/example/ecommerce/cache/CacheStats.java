@@ -0,0 +1,47 @@
+package com.example.ecommerce.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free hit/miss/eviction counters shared by the in-process caches.
+ * LongAdder keeps recording cheap on the request path; reads are only done when reporting.
+ */
+public class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public void recordHit() { hits.increment(); }
+
+    public void recordMiss() { misses.increment(); }
+
+    public void recordEviction() { evictions.increment(); }
+
+    public void recordExpiration() { expirations.increment(); }
+
+    public void recordInvalidation() { invalidations.increment(); }
+
+    public Snapshot snapshot() {
+        return new Snapshot(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    /** Point-in-time view of the counters, safe to serialize on a metrics endpoint */
+    public record Snapshot(long hits, long misses, long evictions, long expirations, long invalidations) {
+
+        @JsonProperty
+        public long requests() {
+            return hits + misses;
+        }
+
+        @JsonProperty
+        public double hitRate() {
+            long requests = requests();
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.ecommerce.cache;
+
+import com.example.ecommerce.dto.catalog.CategoryResponse;
+import com.example.ecommerce.dto.catalog.ProductResponse;
+import com.example.ecommerce.dto.common.PageResponse;
+import com.example.ecommerce.event.ProductChangedEvent;
+import com.example.ecommerce.event.StockFlushedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for catalog reads: single products, per-category product listings
+ * and categories. Values are DTOs, never entities.
+ *
+ * A product write evicts exactly that product and the listings of the category it was in
+ * and the category it is in now; every other entry stays warm. Eviction happens when the
+ * change is flushed and again after commit. A load that raced with an eviction of the same
+ * entry is returned but not stored, so a reader that saw the pre-commit row cannot put it
+ * back after the commit evicted it. That check uses striped version counters per product and
+ * per category, so a write only discards the loads it could have made stale. Stock written
+ * behind by StockReservationEngine evicts the products and any listing page showing them.
+ * The TTL only covers other writes made outside JPA.
+ *
+ * Listing keys are indexed by category and by the products on the page, so an eviction
+ * touches only the pages concerned instead of scanning every cached listing. Index entries
+ * of pages the cache dropped on its own are swept once they outnumber the cache bound.
+ */
+@Component
+public class CatalogCache {
+
+    private static final String ALL_CATEGORIES = "all";
+    private static final int VERSION_STRIPES = 256;
+
+    private final BoundedCache<Long, ProductResponse> products;
+    private final BoundedCache<ListingKey, PageResponse<ProductResponse>> listings;
+    private final BoundedCache<Long, CategoryResponse> categories;
+    private final BoundedCache<String, List<CategoryResponse>> categoryLists;
+    // Bumped by every eviction of the entries they cover; a read-through load only stores its
+    // result if its counter did not move meanwhile. Listings and categories use their category's
+    // counter, and a listing also checks the counters of the products on the page
+    private final Versions productVersions = new Versions(VERSION_STRIPES);
+    private final Versions categoryVersions = new Versions(VERSION_STRIPES);
+    private final Versions categoryListVersion = new Versions(1);
+    // Cached listing keys by category and by product on the page
+    private final Map<Long, Set<ListingKey>> listingsByCategory = new ConcurrentHashMap<>();
+    private final Map<Long, Set<ListingKey>> listingsByProduct = new ConcurrentHashMap<>();
+    private final AtomicInteger indexedListings = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final int maxListings;
+
+    public CatalogCache(@Value("${app.catalogCache.maxProducts:50000}") int maxProducts,
+                        @Value("${app.catalogCache.maxListings:5000}") int maxListings,
+                        @Value("${app.catalogCache.ttlMs:600000}") long ttlMs) {
+        Duration ttl = Duration.ofMillis(ttlMs);
+        this.products = new BoundedCache<>(maxProducts, ttl);
+        this.listings = new BoundedCache<>(maxListings, ttl);
+        this.categories = new BoundedCache<>(1_000, ttl);
+        this.categoryLists = new BoundedCache<>(1, ttl);
+        this.maxListings = maxListings;
+    }
+
+    public ProductResponse getProduct(Long productId, Supplier<ProductResponse> loader) {
+        return readThrough(products, productId, productVersions, productId, loader);
+    }
+
+    public PageResponse<ProductResponse> getCategoryListing(Long categoryId, int page, int size,
+                                                            Supplier<PageResponse<ProductResponse>> loader) {
+        ListingKey key = new ListingKey(categoryId, page, size);
+        PageResponse<ProductResponse> cached = listings.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long observed = categoryVersions.get(categoryId);
+        // Which products the page will show is only known after the load, so take all their counters
+        long[] observedProducts = productVersions.snapshot();
+        PageResponse<ProductResponse> loaded = loader.get();
+        if (loaded != null) {
+            // Indexed before the version check, so an eviction that passes the check still finds the key
+            index(key, loaded);
+            if (categoryVersions.get(categoryId) == observed && unchanged(observedProducts, loaded)) {
+                listings.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public CategoryResponse getCategory(Long categoryId, Supplier<CategoryResponse> loader) {
+        return readThrough(categories, categoryId, categoryVersions, categoryId, loader);
+    }
+
+    public List<CategoryResponse> getAllCategories(Supplier<List<CategoryResponse>> loader) {
+        return readThrough(categoryLists, ALL_CATEGORIES, categoryListVersion, 0L, loader);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void afterProductChangeCommitted(ProductChangedEvent event) {
+        evict(event);
+    }
+
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent event) {
+        for (long productId : event.productIds()) {
+            productVersions.bump(productId);
+            products.invalidate(productId);
+            // Listing loads in flight check the product's counter, so the bump above covers them
+            listingsByProduct.computeIfPresent(productId, (k, keys) -> {
+                keys.forEach(listings::invalidate);
+                return null;
+            });
+        }
+    }
+
+    public void evictCategory(Long categoryId) {
+        categoryListVersion.bump(0L);
+        categories.invalidate(categoryId);
+        categoryLists.invalidateAll();
+        evictListings(categoryId);
+    }
+
+    /** Drop cached category views after their product counters changed; listings are unaffected */
+    public void evictCategoryCounts(Long categoryId) {
+        categoryVersions.bump(categoryId);
+        categoryListVersion.bump(0L);
+        categories.invalidate(categoryId);
+        categoryLists.invalidateAll();
+    }
+
+    public void evictAllCategories() {
+        categoryVersions.bumpAll();
+        categoryListVersion.bump(0L);
+        categories.invalidateAll();
+        categoryLists.invalidateAll();
+    }
+
+    public Map<String, CacheStats.Snapshot> stats() {
+        Map<String, CacheStats.Snapshot> stats = new LinkedHashMap<>();
+        stats.put("catalogProducts", products.stats().snapshot());
+        stats.put("catalogListings", listings.stats().snapshot());
+        stats.put("catalogCategories", categories.stats().snapshot());
+        stats.put("catalogCategoryLists", categoryLists.stats().snapshot());
+        return stats;
+    }
+
+    private <K, V> V readThrough(BoundedCache<K, V> cache, K key, Versions versions, Long versionKey,
+                                 Supplier<V> loader) {
+        V cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long observed = versions.get(versionKey);
+        V loaded = loader.get();
+        if (loaded != null && versions.get(versionKey) == observed) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private void evict(ProductChangedEvent event) {
+        productVersions.bump(event.productId());
+        products.invalidate(event.productId());
+        if (event.before() != null) {
+            evictListings(event.before().categoryId());
+        }
+        if (event.after() != null && (event.before() == null || event.categoryChanged())) {
+            evictListings(event.after().categoryId());
+        }
+    }
+
+    private void evictListings(Long categoryId) {
+        categoryVersions.bump(categoryId);
+        if (categoryId == null) {
+            return;
+        }
+        listingsByCategory.computeIfPresent(categoryId, (k, keys) -> {
+            keys.forEach(listings::invalidate);
+            return null;
+        });
+    }
+
+    private boolean unchanged(long[] observedProducts, PageResponse<ProductResponse> page) {
+        for (ProductResponse product : page.getContent()) {
+            if (!productVersions.unchangedSince(observedProducts, product.getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(ListingKey key, PageResponse<ProductResponse> page) {
+        addToIndex(listingsByCategory, key.categoryId(), key);
+        for (ProductResponse product : page.getContent()) {
+            addToIndex(listingsByProduct, product.getId(), key);
+        }
+        if (indexedListings.addAndGet(1 + page.getContent().size()) > 4 * maxListings
+                && sweeping.compareAndSet(false, true)) {
+            try {
+                indexedListings.set(sweep(listingsByCategory) + sweep(listingsByProduct));
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+
+    // Sets are created, added to and dropped inside compute, so a sweep or eviction that drops a
+    // set cannot lose a key added to it concurrently
+    private static void addToIndex(Map<Long, Set<ListingKey>> index, Long id, ListingKey key) {
+        if (id == null) {
+            return;
+        }
+        index.compute(id, (k, keys) -> {
+            Set<ListingKey> result = keys != null ? keys : new HashSet<>();
+            result.add(key);
+            return result;
+        });
+    }
+
+    /** Drop index entries of listings the cache evicted or expired by itself; returns those left */
+    private int sweep(Map<Long, Set<ListingKey>> index) {
+        int[] remaining = new int[1];
+        for (Long id : index.keySet()) {
+            index.computeIfPresent(id, (k, keys) -> {
+                keys.removeIf(key -> !listings.containsKey(key));
+                remaining[0] += keys.size();
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+        return remaining[0];
+    }
+
+    private record ListingKey(Long categoryId, int page, int size) {}
+
+    /** Version counters striped by id: a bump on one id also invalidates loads of ids sharing its stripe */
+    private static final class Versions {
+        private final AtomicLongArray stripes;
+
+        Versions(int size) {
+            stripes = new AtomicLongArray(size);
+        }
+
+        long get(Long id) {
+            return stripes.get(stripe(id));
+        }
+
+        void bump(Long id) {
+            stripes.incrementAndGet(stripe(id));
+        }
+
+        long[] snapshot() {
+            long[] values = new long[stripes.length()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = stripes.get(i);
+            }
+            return values;
+        }
+
+        boolean unchangedSince(long[] snapshot, Long id) {
+            int stripe = stripe(id);
+            return stripes.get(stripe) == snapshot[stripe];
+        }
+
+        void bumpAll() {
+            for (int i = 0; i < stripes.length(); i++) {
+                stripes.incrementAndGet(i);
+            }
+        }
+
+        private int stripe(Long id) {
+            int h = id != null ? Long.hashCode(id) * 0x9E3779B9 : 0;
+            return (h ^ (h >>> 16)) & (stripes.length() - 1);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async. Methods run on Spring Boot's applicationTaskExecutor, which uses virtual
+ * threads when spring.threads.virtual.enabled=true (the "virtual" profile) and a bounded
+ * platform-thread pool otherwise.
+ *
+ * CPU-bound work keeps its own platform pool on purpose (see PasswordHashingExecutor):
+ * virtual threads only help code that blocks.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
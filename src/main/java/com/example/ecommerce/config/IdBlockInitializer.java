@@ -0,0 +1,86 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.model.CartItem;
+import com.example.ecommerce.model.OrderItem;
+import com.example.ecommerce.model.OutboxEvent;
+import com.example.ecommerce.model.Product;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Map;
+
+/**
+ * Moves each pooled id block past the highest existing id of its table.
+ *
+ * These tables used to take AUTO_INCREMENT ids; the pooled table generator must never hand out
+ * one of those again. With the pooled-lo optimizer the stored value is the first id of the
+ * next block, so max(id) + 1 is exact. The update only ever moves the value forward.
+ *
+ * Runs on plain JDBC before the EntityManagerFactory is created (see DependsOn below): once
+ * Hibernate has fetched a block it keeps handing it out, so aligning later, e.g. when the
+ * server already takes requests, would be too late. Tables that do not exist yet have no ids
+ * to collide with and are skipped.
+ */
+@Slf4j
+@Component
+public class IdBlockInitializer {
+
+    /** Table name -> block size; the table name is also the id_blocks.entity key */
+    private static final Map<String, Integer> POOLED_TABLES = Map.of(
+            "products", Product.ID_BLOCK_SIZE,
+            "cart_items", CartItem.ID_BLOCK_SIZE,
+            "order_items", OrderItem.ID_BLOCK_SIZE,
+            "outbox", OutboxEvent.ID_BLOCK_SIZE);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignIdBlocks() {
+        // Same shape as the table Hibernate's table generator would create
+        jdbcTemplate.execute("create table if not exists id_blocks " +
+                "(entity varchar(255) not null primary key, next_id bigint)");
+        POOLED_TABLES.forEach((table, blockSize) -> {
+            if (tableExists(table)) {
+                align(table, blockSize);
+            }
+        });
+    }
+
+    private void align(String table, int blockSize) {
+        jdbcTemplate.update("insert into id_blocks (entity, next_id) " +
+                "select '" + table + "', coalesce(max(id), 0) + 1 from " + table + " " +
+                "where not exists (select 1 from id_blocks where entity = '" + table + "')");
+        int moved = jdbcTemplate.update("update id_blocks set next_id = " +
+                "(select coalesce(max(id), 0) + 1 from " + table + ") " +
+                "where entity = '" + table + "' and next_id <= (select coalesce(max(id), 0) from " + table + ")");
+        if (moved > 0) {
+            log.info("Moved the {} id block past existing ids (block size {})", table, blockSize);
+        }
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }));
+    }
+
+    /** Makes the EntityManagerFactory wait for the alignment */
+    @Configuration(proxyBeanMethods = false)
+    static class DependsOn extends EntityManagerFactoryDependsOnPostProcessor {
+        DependsOn() {
+            super(IdBlockInitializer.class);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ecommerce.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-path rate limit rules, bound from app.rateLimit.* in application.properties.
+ * Rules are matched in order; the first whose pattern matches the request path applies.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Buckets are spread over this many independently evicted maps */
+    private int stripes = 16;
+
+    /** Upper bound on live buckets per stripe; total memory is stripes * maxBucketsPerStripe buckets */
+    private int maxBucketsPerStripe = 10_000;
+
+    /** A bucket untouched for this long is dropped by the sweeper */
+    private long idleEvictionMs = 600_000;
+
+    /** How often the idle-bucket sweeper runs */
+    private long sweepIntervalMs = 60_000;
+
+    /** Honour X-Forwarded-For for the client IP; only enable behind a trusted proxy */
+    private boolean trustForwardedFor = false;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum KeyType {
+        /** Client IP address */
+        IP,
+        /** Authenticated username, falling back to client IP for anonymous requests */
+        USER
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String pattern;
+        /** Burst size: requests allowed back-to-back from a full bucket */
+        private int capacity;
+        /** Sustained rate the bucket refills at */
+        private double refillPerSecond;
+        private KeyType key = KeyType.IP;
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.ecommerce.config;
 
+import com.example.ecommerce.idempotency.IdempotencyFilter;
+import com.example.ecommerce.metrics.MetricsFilter;
 import com.example.ecommerce.security.AuthTokenFilter;
+import com.example.ecommerce.security.BoundedPasswordEncoder;
+import com.example.ecommerce.security.PasswordHashingExecutor;
+import com.example.ecommerce.security.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -17,6 +25,15 @@ public class SecurityConfig{
     @Autowired
     private AuthTokenFilter authTokenFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    @Autowired
+    private MetricsFilter metricsFilter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity
@@ -24,15 +41,26 @@ public class SecurityConfig{
                 .cors(cors -> cors.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                                 .requestMatchers("/api/v1/auth/**").permitAll()
                                 .requestMatchers("/api/v1/users/**").permitAll()
                                 .requestMatchers("/api/v1/categories/**").permitAll()
                                 .requestMatchers("/api/v1/products/**").permitAll()
-                                .requestMatchers("/api/v1/orders/**").permitAll()
                                 .anyRequest().authenticated()
                         );
+        // Metrics go first so request timings include authentication and rate limiting
+        httpSecurity.addFilterBefore(metricsFilter, DisableEncodeUrlFilter.class);
         httpSecurity.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+        httpSecurity.addFilterAfter(rateLimitFilter, AuthTokenFilter.class);
+        // After rate limiting, so throttled retries are not recorded as the key's answer
+        httpSecurity.addFilterAfter(idempotencyFilter, RateLimitFilter.class);
         return httpSecurity.build();
     }
 
+    /** BCrypt, run on the bounded hashing pool so login bursts cannot starve request threads */
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
+    }
+
 }
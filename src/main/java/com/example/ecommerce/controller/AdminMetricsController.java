@@ -0,0 +1,160 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.cache.CacheStats;
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.idempotency.IdempotencyStore;
+import com.example.ecommerce.inventory.CartHoldService;
+import com.example.ecommerce.inventory.StockReservationEngine;
+import com.example.ecommerce.metrics.EndpointMetricsRegistry;
+import com.example.ecommerce.outbox.OutboxDispatcher;
+import com.example.ecommerce.pricing.ProductPriceTable;
+import com.example.ecommerce.search.ProductFacetIndex;
+import com.example.ecommerce.search.ProductSearchIndex;
+import com.example.ecommerce.security.PasswordHashingExecutor;
+import com.example.ecommerce.security.RateLimitFilter;
+import com.example.ecommerce.security.TokenRevocationService;
+import com.example.ecommerce.security.UserPrincipalCache;
+import com.example.ecommerce.security.UserSecurityVersionRegistry;
+import com.example.ecommerce.security.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal metrics for operators. Secured to ROLE_ADMIN in SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/metrics")
+public class AdminMetricsController {
+
+    @Autowired
+    private EndpointMetricsRegistry endpointMetricsRegistry;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private UserSecurityVersionRegistry securityVersionRegistry;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductPriceTable productPriceTable;
+
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+
+    @Autowired
+    private CartHoldService cartHoldService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    /** Latency percentiles, JDBC statements and sampled allocation per route template and status */
+    @GetMapping("/endpoints")
+    public ResponseEntity<ApiResponse<List<EndpointMetricsRegistry.EndpointSnapshot>>> getEndpointMetrics() {
+        return ResponseEntity.ok(ApiResponse.success(endpointMetricsRegistry.snapshot()));
+    }
+
+    @DeleteMapping("/endpoints")
+    public ResponseEntity<ApiResponse<Void>> resetEndpointMetrics() {
+        endpointMetricsRegistry.reset();
+        return ResponseEntity.ok(ApiResponse.success(null, "Endpoint metrics reset"));
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<ApiResponse<Map<String, CacheStats.Snapshot>>> getCacheStats() {
+        Map<String, CacheStats.Snapshot> stats = new LinkedHashMap<>();
+        stats.put("verifiedTokens", verifiedTokenCache.stats());
+        stats.put("userPrincipals", userPrincipalCache.stats());
+        stats.put("securityVersions", securityVersionRegistry.stats());
+        stats.putAll(catalogCache.stats());
+        stats.put("idempotentResponses", idempotencyStore.cacheStats());
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    @GetMapping("/revocations")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getRevocationStats() {
+        return ResponseEntity.ok(ApiResponse.success(tokenRevocationService.stats()));
+    }
+
+    @GetMapping("/rate-limits")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getRateLimitStats() {
+        return ResponseEntity.ok(ApiResponse.success(Map.of(
+                "allowed", rateLimitFilter.getAllowedCount(),
+                "rejected", rateLimitFilter.getRejectedCount(),
+                "evictedBuckets", rateLimitFilter.getEvictedCount(),
+                "overflowedClients", rateLimitFilter.getOverflowCount(),
+                "liveBuckets", (long) rateLimitFilter.getBucketCount())));
+    }
+
+    @GetMapping("/password-hashing")
+    public ResponseEntity<ApiResponse<Map<String, Number>>> getPasswordHashingStats() {
+        return ResponseEntity.ok(ApiResponse.success(passwordHashingExecutor.stats()));
+    }
+
+    @GetMapping("/search-index")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getSearchIndexStats() {
+        return ResponseEntity.ok(ApiResponse.success(productSearchIndex.stats()));
+    }
+
+    @GetMapping("/facet-index")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getFacetIndexStats() {
+        return ResponseEntity.ok(ApiResponse.success(productFacetIndex.stats()));
+    }
+
+    @GetMapping("/price-table")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getPriceTableStats() {
+        return ResponseEntity.ok(ApiResponse.success(productPriceTable.stats()));
+    }
+
+    @GetMapping("/stock")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getStockReservationStats() {
+        return ResponseEntity.ok(ApiResponse.success(stockReservationEngine.stats()));
+    }
+
+    @GetMapping("/cart-holds")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getCartHoldStats() {
+        return ResponseEntity.ok(ApiResponse.success(cartHoldService.stats()));
+    }
+
+    @GetMapping("/idempotency")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getIdempotencyStats() {
+        return ResponseEntity.ok(ApiResponse.success(idempotencyStore.stats()));
+    }
+
+    @GetMapping("/outbox")
+    public ResponseEntity<ApiResponse<Map<String, Map<String, Long>>>> getOutboxStats() {
+        return ResponseEntity.ok(ApiResponse.success(outboxDispatcher.stats()));
+    }
+}
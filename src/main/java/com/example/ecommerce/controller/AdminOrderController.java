@@ -0,0 +1,32 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.dto.order.BulkTransitionReport;
+import com.example.ecommerce.dto.order.BulkTransitionRequest;
+import com.example.ecommerce.service.OrderStatusService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Order administration. Secured to ROLE_ADMIN in SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/orders")
+public class AdminOrderController {
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
+    /** Move many orders through one or more statuses; per-order failures are reported, not fatal */
+    @PostMapping("/status")
+    public ResponseEntity<ApiResponse<BulkTransitionReport>> transitionAll(@Valid @RequestBody BulkTransitionRequest request) {
+        BulkTransitionReport report = orderStatusService.transitionAll(request.getOrderIds(), request.getPath());
+        return ResponseEntity.ok(ApiResponse.success(report,
+                "Moved " + report.getTransitioned() + " of " + report.getRequested() + " orders"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.catalog.ImportReport;
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.service.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Catalog administration. Secured to ROLE_ADMIN in SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/products")
+public class AdminProductController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    /**
+     * Bulk import from the raw request body, read as a stream:
+     * Content-Type text/csv (with a header row) or application/x-ndjson.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<ApiResponse<ImportReport>> importProducts(HttpServletRequest request) throws IOException {
+        ProductImportService.Format format = request.getContentType().startsWith(NDJSON)
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        ImportReport report = productImportService.importProducts(request.getInputStream(), format);
+        return ResponseEntity.ok(ApiResponse.success(report,
+                "Imported " + report.getImportedRows() + " of " + report.getTotalRows() + " products"));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.security.AuthTokenFilter;
+import com.example.ecommerce.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+public class AuthController {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AuthTokenFilter authTokenFilter;
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(HttpServletRequest request) {
+        authService.logout(authTokenFilter.parseJwt(request));
+        return ResponseEntity.ok(ApiResponse.success(null, "Logged out successfully"));
+    }
+}
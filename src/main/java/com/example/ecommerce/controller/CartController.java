@@ -0,0 +1,83 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.cart.CartBatchRequest;
+import com.example.ecommerce.dto.cart.CartItemRequest;
+import com.example.ecommerce.dto.cart.CartQuantityRequest;
+import com.example.ecommerce.dto.cart.CartResponse;
+import com.example.ecommerce.dto.cart.CartSummaryResponse;
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.dto.order.CheckoutRequest;
+import com.example.ecommerce.dto.order.CheckoutResponse;
+import com.example.ecommerce.security.SecurityUtils;
+import com.example.ecommerce.service.CartService;
+import com.example.ecommerce.service.CheckoutService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/cart")
+public class CartController {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<CartResponse>> getCart() {
+        return ResponseEntity.ok(ApiResponse.success(cartService.getCart(SecurityUtils.getCurrentUserId())));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<CartSummaryResponse>> getCartSummary() {
+        return ResponseEntity.ok(ApiResponse.success(cartService.getCartSummary(SecurityUtils.getCurrentUserId())));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<ApiResponse<CartResponse>> addItem(@Valid @RequestBody CartItemRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(cartService.addItem(SecurityUtils.getCurrentUserId(),
+                request.getProductId(), request.getQuantity())));
+    }
+
+    /** Many add/set/remove operations in one request and one transaction */
+    @PostMapping("/items/batch")
+    public ResponseEntity<ApiResponse<CartResponse>> applyOperations(@Valid @RequestBody CartBatchRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(cartService.applyOperations(SecurityUtils.getCurrentUserId(),
+                request.getOperations())));
+    }
+
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<ApiResponse<CartResponse>> updateItemQuantity(@PathVariable Long productId,
+                                                                        @Valid @RequestBody CartQuantityRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(cartService.updateItemQuantity(SecurityUtils.getCurrentUserId(),
+                productId, request.getQuantity())));
+    }
+
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<ApiResponse<CartResponse>> removeItem(@PathVariable Long productId) {
+        return ResponseEntity.ok(ApiResponse.success(cartService.removeItem(SecurityUtils.getCurrentUserId(), productId)));
+    }
+
+    /** Turn the cart into an order; the response carries per-stage timings of the checkout */
+    @PostMapping("/checkout")
+    public ResponseEntity<ApiResponse<CheckoutResponse>> checkout(@Valid @RequestBody CheckoutRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(checkoutService.checkout(SecurityUtils.getCurrentUserId(), request),
+                "Order placed"));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> clearCart() {
+        cartService.clearCart(SecurityUtils.getCurrentUserId());
+        return ResponseEntity.ok(ApiResponse.success(null, "Cart cleared"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.catalog.CategoryResponse;
+import com.example.ecommerce.dto.catalog.ProductResponse;
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.dto.common.PageResponse;
+import com.example.ecommerce.service.CatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/categories")
+public class CategoryController {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getAllCategories() {
+        return ResponseEntity.ok(ApiResponse.success(catalogService.getAllCategories()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<CategoryResponse>> getCategory(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(catalogService.getCategory(id)));
+    }
+
+    @GetMapping("/{id}/products")
+    public ResponseEntity<ApiResponse<PageResponse<ProductResponse>>> getCategoryProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(catalogService.getProductsByCategory(id, page, size)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.order.OrderSummaryResponse;
+import com.example.ecommerce.security.SecurityUtils;
+import com.example.ecommerce.service.OrderHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/orders")
+public class OrderController {
+
+    @Autowired
+    private OrderHistoryService orderHistoryService;
+
+    /** The caller's orders, newest first. Follow nextCursor for the next page. */
+    @GetMapping
+    public ResponseEntity<ApiResponse<CursorPage<OrderSummaryResponse>>> listOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(
+                orderHistoryService.listOrders(SecurityUtils.getCurrentUserId(), cursor, size)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.catalog.FacetSearchResponse;
+import com.example.ecommerce.dto.catalog.ProductCursor;
+import com.example.ecommerce.dto.catalog.ProductResponse;
+import com.example.ecommerce.dto.common.ApiResponse;
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.service.CatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/products")
+public class ProductController {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(catalogService.searchProducts(q, limit)));
+    }
+
+    /** ?categoryId=1&categoryId=2&priceBucket=3&inStock=true - values of one facet are OR-ed */
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<FacetSearchResponse>> filterProducts(
+            @RequestParam(required = false) Set<Long> categoryId,
+            @RequestParam(required = false) Set<Integer> priceBucket,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(catalogService.filterProducts(
+                categoryId != null ? categoryId : Set.of(),
+                priceBucket != null ? priceBucket : Set.of(),
+                inStock, afterId, size)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ProductResponse>> getProduct(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(catalogService.getProduct(id)));
+    }
+
+    /**
+     * Keyset-paginated listing: ?categoryId=1 pages one category by id, ?sort=price pages all
+     * products by price. Follow nextCursor for the next page.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponse>>> listProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "category") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ProductCursor.Sort order;
+        try {
+            order = ProductCursor.Sort.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("sort must be one of: category, price");
+        }
+        return ResponseEntity.ok(ApiResponse.success(catalogService.listProducts(categoryId, order, cursor, size)));
+    }
+}
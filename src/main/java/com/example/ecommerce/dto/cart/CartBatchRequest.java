@@ -0,0 +1,21 @@
+package com.example.ecommerce.dto.cart;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/** Body of POST /api/v1/cart/items/batch: operations applied in order, all or nothing */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CartBatchRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 500, message = "At most 500 operations per batch")
+    private List<@Valid CartOperationRequest> operations;
+}
@@ -0,0 +1,21 @@
+package com.example.ecommerce.dto.cart;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Body of POST /api/v1/cart/items: add quantity units of a product to the cart */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CartItemRequest {
+
+    @NotNull(message = "Product id is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+}
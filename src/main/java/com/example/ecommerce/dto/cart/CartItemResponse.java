@@ -0,0 +1,25 @@
+package com.example.ecommerce.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One cart line. heldQuantity/holdExpiresAt describe the stock hold behind it; both are empty
+ * when holds are disabled or the hold already expired.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CartItemResponse {
+    private final Long productId;
+    private final String productName;
+    private final BigDecimal unitPrice;
+    private final int quantity;
+    private final BigDecimal lineTotal;
+    private final int heldQuantity;
+    private final Instant holdExpiresAt;
+}
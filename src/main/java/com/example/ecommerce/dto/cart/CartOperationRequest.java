@@ -0,0 +1,32 @@
+package com.example.ecommerce.dto.cart;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One step of a batch cart update. ADD adds quantity units, SET sets the line to quantity
+ * (0 removes it), REMOVE drops the line and ignores quantity.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CartOperationRequest {
+
+    public enum Type {
+        ADD,
+        SET,
+        REMOVE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type type;
+
+    @NotNull(message = "Product id is required")
+    private Long productId;
+
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private int quantity;
+}
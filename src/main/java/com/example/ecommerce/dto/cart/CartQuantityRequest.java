@@ -0,0 +1,18 @@
+package com.example.ecommerce.dto.cart;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Body of PUT /api/v1/cart/items/{productId}: the new quantity, 0 removes the line */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CartQuantityRequest {
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Integer quantity;
+}
@@ -0,0 +1,23 @@
+package com.example.ecommerce.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** The caller's cart; an empty cart has a null id */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CartResponse {
+    private final Long id;
+    private final List<CartItemResponse> items;
+    private final int totalItems;
+    private final BigDecimal totalPrice;
+
+    public static CartResponse empty() {
+        return new CartResponse(null, List.of(), 0, BigDecimal.ZERO);
+    }
+}
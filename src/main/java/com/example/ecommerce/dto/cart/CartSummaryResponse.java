@@ -0,0 +1,23 @@
+package com.example.ecommerce.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Cart badge/header data, read from the carts row alone */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CartSummaryResponse {
+    private final Long id;
+    private final int totalItems;
+    private final BigDecimal subtotal;
+    private final LocalDateTime updatedAt;
+
+    public static CartSummaryResponse empty() {
+        return new CartSummaryResponse(null, 0, BigDecimal.ZERO, null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ecommerce.dto.catalog;
+
+import com.example.ecommerce.model.Category;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Read-only category view served by the catalog endpoints.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CategoryResponse {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final int productCount;
+    private final int activeProductCount;
+    private final int inStockProductCount;
+
+    public static CategoryResponse from(Category category) {
+        return new CategoryResponse(category.getId(), category.getName(), category.getDescription(),
+                category.getProductCount(), category.getActiveProductCount(), category.getInStockProductCount());
+    }
+}
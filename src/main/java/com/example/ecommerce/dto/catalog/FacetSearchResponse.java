@@ -0,0 +1,26 @@
+package com.example.ecommerce.dto.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of products matching a facet selection, with the count for every facet value.
+ * Pass nextAfterId back as afterId for the next page; it is null on the last page.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class FacetSearchResponse {
+    private final List<ProductResponse> products;
+    private final int totalMatches;
+    private final Long nextAfterId;
+    private final Map<Long, Integer> categoryCounts;
+    private final List<PriceBucketCount> priceBuckets;
+    private final int inStockCount;
+
+    public record PriceBucketCount(int bucket, String label, int count) {}
+}
@@ -0,0 +1,26 @@
+package com.example.ecommerce.dto.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. Only the first errors are listed (errorsTruncated tells
+ * whether there were more); failedRows always has the full count.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ImportReport {
+    private final long totalRows;
+    private final long importedRows;
+    private final long failedRows;
+    private final long elapsedMillis;
+    private final double rowsPerSecond;
+    private final List<RowError> errors;
+    private final boolean errorsTruncated;
+
+    public record RowError(long line, String message) {}
+}
@@ -0,0 +1,46 @@
+package com.example.ecommerce.dto.catalog;
+
+import com.example.ecommerce.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated product listing: the sort key and id of the last row returned.
+ * Encoded as opaque URL-safe Base64 so clients cannot depend on its shape.
+ */
+public record ProductCursor(Sort sort, BigDecimal price, long id) {
+
+    public enum Sort {
+        /** (category_id, id) - products of one category in id order */
+        CATEGORY,
+        /** (price, id) - all active products, cheapest first */
+        PRICE
+    }
+
+    public static ProductCursor after(Sort sort, ProductResponse last) {
+        return new ProductCursor(sort, sort == Sort.PRICE ? last.getPrice() : null, last.getId());
+    }
+
+    public String encode() {
+        String raw = sort.name() + ":" + (price != null ? price.toPlainString() : "") + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws BadRequestException if the cursor is malformed or was issued for another sort order */
+    public static ProductCursor decode(String cursor, Sort expectedSort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            Sort sort = Sort.valueOf(parts[0]);
+            BigDecimal price = parts[1].isEmpty() ? null : new BigDecimal(parts[1]);
+            long id = Long.parseLong(parts[2]);
+            if (parts.length != 3 || sort != expectedSort || (sort == Sort.PRICE) != (price != null)) {
+                throw new BadRequestException("Cursor does not match the requested listing");
+            }
+            return new ProductCursor(sort, price, id);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ecommerce.dto.catalog;
+
+import com.example.ecommerce.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only product view served by the catalog endpoints (and held by the catalog cache,
+ * so it must never reference an entity).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProductResponse {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final BigDecimal price;
+    private final Integer stockQuantity;
+    private final boolean inStock;
+    private final String imageUrl;
+    private final boolean active;
+    private final Long categoryId;
+    private final String categoryName;
+
+    /** Create from an entity whose category has been fetched */
+    public static ProductResponse from(Product product) {
+        return new ProductResponse(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.isInStock(),
+                product.getImageUrl(),
+                product.isActive(),
+                product.getCategory().getId(),
+                product.getCategory().getName());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ecommerce.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back to get the following page;
+ * it is null on the last page.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+    private final boolean hasMore;
+}
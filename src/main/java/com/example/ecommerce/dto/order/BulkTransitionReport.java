@@ -0,0 +1,26 @@
+package com.example.ecommerce.dto.order;
+
+import com.example.ecommerce.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status transition. An order that fails a step is listed once, with the
+ * status it was left in (null if its whole chunk failed), and skips the remaining steps; the
+ * others carry on.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BulkTransitionReport {
+    private final int requested;
+    private final int transitioned;
+    private final int failed;
+    private final long elapsedMillis;
+    private final List<Failure> failures;
+
+    public record Failure(Long orderId, Order.OrderStatus status, Order.OrderStatus target, String message) {}
+}
@@ -0,0 +1,29 @@
+package com.example.ecommerce.dto.order;
+
+import com.example.ecommerce.model.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/v1/admin/orders/status: move every order through path in order, e.g.
+ * [PROCESSING, SHIPPED] for confirmed orders.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkTransitionRequest {
+
+    @NotEmpty(message = "At least one order id is required")
+    @Size(max = 50000, message = "At most 50000 orders per request")
+    private List<@NotNull Long> orderIds;
+
+    @NotEmpty(message = "At least one target status is required")
+    @Size(max = 6, message = "A path has at most 6 steps")
+    private List<@NotNull Order.OrderStatus> path;
+}
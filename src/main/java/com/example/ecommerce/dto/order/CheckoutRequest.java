@@ -0,0 +1,24 @@
+package com.example.ecommerce.dto.order;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Body of POST /api/v1/cart/checkout: turn the current cart into an order */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CheckoutRequest {
+
+    @NotBlank(message = "Shipping address is required")
+    @Size(max = 2000, message = "Shipping address cannot exceed 2000 characters")
+    private String shippingAddress;
+
+    @Size(max = 50, message = "Payment method cannot exceed 50 characters")
+    private String paymentMethod;
+
+    @Size(max = 255, message = "Order notes cannot exceed 255 characters")
+    private String orderNotes;
+}
@@ -0,0 +1,26 @@
+package com.example.ecommerce.dto.order;
+
+import com.example.ecommerce.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * The order a checkout created. stageMicros has the time spent per pipeline stage of the
+ * attempt that succeeded (load, validate, hold, build, flush, commit) plus the overall total;
+ * attempts counts optimistic-locking retries included in that total.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CheckoutResponse {
+    private final Long orderId;
+    private final Order.OrderStatus status;
+    private final BigDecimal totalAmount;
+    private final int totalItems;
+    private final int attempts;
+    private final Map<String, Long> stageMicros;
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.dto.order;
+
+import com.example.ecommerce.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a user's order list: the id of the last order returned (orders are listed newest,
+ * i.e. highest id, first). Encoded as opaque URL-safe Base64 like ProductCursor.
+ */
+public record OrderCursor(long orderId) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("O:" + orderId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws BadRequestException if the cursor is malformed */
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith("O:")) {
+                throw new BadRequestException("Cursor does not match the requested listing");
+            }
+            return new OrderCursor(Long.parseLong(raw.substring(2)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
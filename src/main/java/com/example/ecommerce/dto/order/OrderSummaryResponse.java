@@ -0,0 +1,30 @@
+package com.example.ecommerce.dto.order;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** One row of "my orders"; preview has the first few lines, lineCount says how many there are */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OrderSummaryResponse {
+    private final Long orderId;
+    private final Order.OrderStatus status;
+    private final BigDecimal totalAmount;
+    private final int totalItems;
+    private final int lineCount;
+    private final List<OrderSummary.PreviewItem> preview;
+    private final LocalDateTime createdAt;
+
+    public static OrderSummaryResponse from(OrderSummary summary) {
+        return new OrderSummaryResponse(summary.getOrderId(), summary.getStatus(), summary.getTotalAmount(),
+                summary.getTotalItems(), summary.getLineCount(), summary.getPreview(), summary.getCreatedAt());
+    }
+}
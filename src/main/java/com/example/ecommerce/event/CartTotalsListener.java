@@ -0,0 +1,51 @@
+package com.example.ecommerce.event;
+
+import com.example.ecommerce.repository.CartRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the running totals on Cart correct when prices move.
+ *
+ * Cart mutators adjust subtotal by the line's price at that moment, so after a price change
+ * every cart holding the product is re-derived from its lines in one UPDATE.
+ *
+ * app.cartTotalsRecomputeOnStartup runs a one-off pass at startup that fills the totals of
+ * carts created before the columns existed. It is off by default: enable it for the first
+ * deploy of the columns only. Carts whose totals are already right are left untouched.
+ */
+@Slf4j
+@Component
+public class CartTotalsListener {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Value("${app.cartTotalsRecomputeOnStartup:false}")
+    private boolean recomputeOnStartup;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.priceChanged()) {
+            int carts = cartRepository.recomputeTotalsForProduct(event.productId());
+            log.debug("Re-derived totals of {} carts after a price change of product {}", carts, event.productId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recomputeOnStartup() {
+        if (recomputeOnStartup) {
+            log.info("Corrected totals of {} carts", cartRepository.recomputeAllTotals());
+        }
+    }
+}
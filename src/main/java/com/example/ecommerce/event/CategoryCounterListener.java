@@ -0,0 +1,184 @@
+package com.example.ecommerce.event;
+
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductFacetRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the product counters on Category in step with product writes.
+ *
+ * Creates, deletes, moves, (de)activations and stock changes are summed per category for the
+ * whole product transaction, and after it commits each affected category gets a single
+ * "set x = x + delta" update, so concurrent writers never lose an increment and a bulk
+ * import costs one update per category per batch rather than one per row. Stock written
+ * straight to the table by StockReservationEngine arrives as a StockFlushedEvent and moves
+ * the in-stock counter of each product that crossed zero. The updates run in their own
+ * transaction; the periodic recount repairs any drift from a crash between the two commits.
+ */
+@Slf4j
+@Component
+public class CategoryCounterListener {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Fills the counters for rows that existed before they were introduced */
+    @Value("${app.categoryCountsRecountOnStartup:true}")
+    private boolean recountOnStartup;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Map<Long, int[]> deltas = pendingDeltas();
+        ProductSnapshot before = event.before();
+        ProductSnapshot after = event.after();
+        Long fromCategory = before != null ? before.categoryId() : null;
+        Long toCategory = after != null ? after.categoryId() : null;
+
+        if (Objects.equals(fromCategory, toCategory)) {
+            add(deltas, toCategory,
+                    contribution(after, Counter.TOTAL) - contribution(before, Counter.TOTAL),
+                    contribution(after, Counter.ACTIVE) - contribution(before, Counter.ACTIVE),
+                    contribution(after, Counter.IN_STOCK) - contribution(before, Counter.IN_STOCK));
+        } else {
+            add(deltas, fromCategory, -contribution(before, Counter.TOTAL), -contribution(before, Counter.ACTIVE),
+                    -contribution(before, Counter.IN_STOCK));
+            add(deltas, toCategory, contribution(after, Counter.TOTAL), contribution(after, Counter.ACTIVE),
+                    contribution(after, Counter.IN_STOCK));
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(deltas);
+        }
+    }
+
+    /** Committed stock writes outside the entity; only a move to or from zero changes a counter */
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent event) {
+        Map<Long, Integer> crossings = new HashMap<>();
+        for (int i = 0; i < event.productIds().length; i++) {
+            boolean wasInStock = event.previousStockQuantities()[i] > 0;
+            boolean isInStock = event.stockQuantities()[i] > 0;
+            if (wasInStock != isInStock) {
+                crossings.put(event.productIds()[i], isInStock ? 1 : -1);
+            }
+        }
+        if (crossings.isEmpty()) {
+            return;
+        }
+        Map<Long, int[]> deltas = new HashMap<>();
+        for (ProductFacetRow row : productRepository.findFacetRowsByIdIn(crossings.keySet())) {
+            // Inactive products are not counted as in stock either way
+            if (row.active()) {
+                add(deltas, row.categoryId(), 0, 0, crossings.get(row.id()));
+            }
+        }
+        apply(deltas);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recountOnStartup() {
+        if (recountOnStartup) {
+            recount();
+        }
+    }
+
+    @Scheduled(cron = "${app.categoryCountsRecountCron:0 30 3 * * *}")
+    @Transactional
+    public void recount() {
+        int categories = categoryRepository.recountProducts();
+        catalogCache.evictAllCategories();
+        log.info("Recounted products for {} categories", categories);
+    }
+
+    /**
+     * The delta map of the current transaction, registering an after-commit hook on first use.
+     * Outside a transaction the caller applies a fresh map straight away.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, int[]> pendingDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashMap<>();
+        }
+        Map<Long, int[]> deltas = (Map<Long, int[]>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            Map<Long, int[]> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CategoryCounterListener.this);
+                }
+            });
+            deltas = created;
+        }
+        return deltas;
+    }
+
+    private static void add(Map<Long, int[]> deltas, Long categoryId, int total, int active, int inStock) {
+        if (categoryId == null) {
+            return;
+        }
+        int[] delta = deltas.computeIfAbsent(categoryId, id -> new int[3]);
+        delta[0] += total;
+        delta[1] += active;
+        delta[2] += inStock;
+    }
+
+    private void apply(Map<Long, int[]> deltas) {
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0 && delta[2] == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status -> deltas.forEach((categoryId, delta) ->
+                categoryRepository.adjustProductCounts(categoryId, delta[0], delta[1], delta[2])));
+        deltas.keySet().forEach(catalogCache::evictCategoryCounts);
+    }
+
+    private enum Counter { TOTAL, ACTIVE, IN_STOCK }
+
+    private static int contribution(ProductSnapshot product, Counter counter) {
+        if (product == null) {
+            return 0;
+        }
+        return switch (counter) {
+            case TOTAL -> 1;
+            case ACTIVE -> product.active() ? 1 : 0;
+            case IN_STOCK -> product.active() && product.isInStock() ? 1 : 0;
+        };
+    }
+}
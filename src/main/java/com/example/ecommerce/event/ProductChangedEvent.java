@@ -0,0 +1,45 @@
+package com.example.ecommerce.event;
+
+import java.util.Objects;
+
+/**
+ * Published from the Product JPA lifecycle (see ProductEntityListener).
+ * before is null for CREATED, after is null for DELETED.
+ *
+ * Listeners that maintain caches evict synchronously (@EventListener); listeners that
+ * maintain derived state should use @TransactionalEventListener so a rolled-back write
+ * is never applied.
+ */
+public record ProductChangedEvent(Type type, ProductSnapshot before, ProductSnapshot after) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public Long productId() {
+        return after != null ? after.id() : before.id();
+    }
+
+    public ProductSnapshot current() {
+        return after != null ? after : before;
+    }
+
+    public boolean categoryChanged() {
+        return before != null && after != null && !Objects.equals(before.categoryId(), after.categoryId());
+    }
+
+    public boolean priceChanged() {
+        return before != null && after != null && !Objects.equals(before.price(), after.price())
+                && (before.price() == null || after.price() == null || before.price().compareTo(after.price()) != 0);
+    }
+
+    public boolean stockChanged() {
+        return before != null && after != null && !Objects.equals(before.stockQuantity(), after.stockQuantity());
+    }
+
+    public boolean activeChanged() {
+        return before != null && after != null && before.active() != after.active();
+    }
+}
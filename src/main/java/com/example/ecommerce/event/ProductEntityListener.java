@@ -0,0 +1,48 @@
+package com.example.ecommerce.event;
+
+import com.example.ecommerce.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns Product lifecycle callbacks into ProductChangedEvents carrying the state before
+ * (as loaded or last flushed) and after the write.
+ */
+@Component
+public class ProductEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void afterCreate(Product product) {
+        ProductSnapshot created = ProductSnapshot.of(product);
+        product.setLoadedSnapshot(created);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, null, created));
+    }
+
+    @PreUpdate
+    public void beforeUpdate(Product product) {
+        ProductSnapshot before = product.getLoadedSnapshot();
+        ProductSnapshot after = ProductSnapshot.of(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED,
+                before != null ? before : after, after));
+    }
+
+    @PostUpdate
+    public void afterUpdate(Product product) {
+        product.setLoadedSnapshot(ProductSnapshot.of(product));
+    }
+
+    @PostRemove
+    public void afterDelete(Product product) {
+        ProductSnapshot before = product.getLoadedSnapshot();
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.DELETED,
+                before != null ? before : ProductSnapshot.of(product), null));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ecommerce.event;
+
+import com.example.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable copy of the Product fields that downstream read models care about.
+ * Taken inside JPA callbacks, so it only reads the category id (never initializes the proxy).
+ */
+public record ProductSnapshot(Long id, Long categoryId, String name, String description, String imageUrl,
+                              BigDecimal price, Integer stockQuantity, boolean active) {
+
+    public static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(
+                product.getId(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getName(),
+                product.getDescription(),
+                product.getImageUrl(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.isActive());
+    }
+
+    public boolean isInStock() {
+        return stockQuantity != null && stockQuantity > 0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.event;
+
+/**
+ * Published by StockReservationEngine after it wrote stock changes straight to the products
+ * table. Those writes bypass the Product entity, so no ProductChangedEvent is raised for them.
+ * The arrays are parallel: stock_quantity of each product before and after the committed write.
+ */
+public record StockFlushedEvent(long[] productIds, int[] previousStockQuantities, int[] stockQuantities) {
+}
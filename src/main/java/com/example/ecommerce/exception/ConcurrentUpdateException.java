@@ -0,0 +1,12 @@
+package com.example.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentUpdateException extends BaseException {
+
+    public ConcurrentUpdateException(String message) {
+        super(message, HttpStatus.CONFLICT, "CONCURRENT_UPDATE");
+    }
+}
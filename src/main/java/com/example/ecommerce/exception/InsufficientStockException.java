@@ -0,0 +1,23 @@
+package com.example.ecommerce.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends BaseException {
+
+    private final String productName;
+    private final int requested;
+    private final int available;
+
+    public InsufficientStockException(String productName, int requested, int available) {
+        super(String.format("Insufficient stock for '%s': requested %d, available %d",
+                        productName, requested, available),
+                HttpStatus.CONFLICT, "INSUFFICIENT_STOCK");
+        this.productName = productName;
+        this.requested = requested;
+        this.available = available;
+    }
+}
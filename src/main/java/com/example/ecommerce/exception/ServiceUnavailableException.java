@@ -0,0 +1,16 @@
+package com.example.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends BaseException {
+
+    public ServiceUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE");
+    }
+
+    public ServiceUnavailableException() {
+        super("Service is busy. Please try again shortly.", HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE");
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.ecommerce.idempotency;
+
+import com.example.ecommerce.dto.error.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key support for the order-creating endpoints (app.idempotency.paths), registered
+ * after RateLimitFilter so the caller is known.
+ *
+ * The key is scoped to caller, method and path. The first request with a key runs and its
+ * response is recorded exactly as sent; a retry with the same key and body gets those bytes
+ * back (with Idempotent-Replayed: true) without running again, and a retry that arrives
+ * while the first is still running waits for it, up to app.idempotency.waitTimeoutMs. Reusing
+ * a key with a different body is a 422. Answers a retry can change (5xx, 429, and a 409
+ * CONCURRENT_UPDATE) are not recorded, so the retry runs again. Requests without the header
+ * pass through unchanged, and so do anonymous ones, which authorization rejects further down
+ * the chain.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    /** 409 error codes that mean "try again", not "this request's answer is no" */
+    private static final Set<String> TRANSIENT_CONFLICTS = Set.of("CONCURRENT_UPDATE");
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.paths:/api/v1/cart/checkout}")
+    private List<String> paths;
+
+    @Value("${app.idempotency.waitTimeoutMs:30000}")
+    private long waitTimeoutMillis;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = path(request);
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, "INVALID_IDEMPOTENCY_KEY",
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        String key = sha256((authentication.getName() + "\n" + request.getMethod() + " " + path(request) + "\n"
+                + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        String fingerprint = sha256(body);
+
+        while (true) {
+            IdempotencyStore.Claim claim = idempotencyStore.claim(key, fingerprint);
+            switch (claim.outcome()) {
+                case EXECUTE -> {
+                    execute(new CachedBodyRequest(request, body), response, filterChain, key, fingerprint);
+                    return;
+                }
+                case REPLAY -> {
+                    IdempotencyStore.StoredResponse stored;
+                    try {
+                        stored = claim.response().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        writeInProgress(request, response);
+                        return;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        writeInProgress(request, response);
+                        return;
+                    } catch (ExecutionException e) {
+                        throw new ServletException(e.getCause());
+                    }
+                    if (stored != null) {
+                        replay(stored, response);
+                        return;
+                    }
+                    // The first execution failed and gave the key up: claim it again
+                }
+                case KEY_REUSED -> {
+                    writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+                            HEADER + " was already used for a different request body");
+                    return;
+                }
+                case IN_PROGRESS -> {
+                    writeInProgress(request, response);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper recorded = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, recorded);
+            if (!isTransient(recorded)) {
+                idempotencyStore.complete(key, new IdempotencyStore.StoredResponse(fingerprint, recorded.getStatus(),
+                        recorded.getContentType(), recorded.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.abandon(key);
+            }
+            recorded.copyBodyToResponse();
+        }
+    }
+
+    /** Server errors, throttling and optimistic-concurrency clashes may succeed on retry */
+    private boolean isTransient(ContentCachingResponseWrapper recorded) {
+        int status = recorded.getStatus();
+        if (status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return true;
+        }
+        if (status != HttpStatus.CONFLICT.value()) {
+            return false;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(recorded.getContentAsByteArray());
+            return body != null && body.has("error") && TRANSIENT_CONFLICTS.contains(body.get("error").asText());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeInProgress(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        writeError(request, response, HttpStatus.CONFLICT, "IDEMPOTENCY_KEY_IN_PROGRESS",
+                "A request with this " + HEADER + " is still being processed. Please retry shortly.");
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String error, String message) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(status.value(), error, message, request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** The request with its body already read, so the controller can read it again */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // Everything is buffered already: it is all available now, and read in one go
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.ecommerce.idempotency;
+
+import com.example.ecommerce.cache.BoundedCache;
+import com.example.ecommerce.cache.CacheStats;
+import com.example.ecommerce.model.IdempotencyRecord;
+import com.example.ecommerce.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Responses to requests sent with an Idempotency-Key, by scoped key.
+ *
+ * Three tiers: requests still running (a CompletableFuture per key, so duplicates wait for the
+ * first execution instead of starting their own), finished responses in a BoundedCache
+ * (app.idempotency.maxEntries, app.idempotency.ttlMs), and the idempotency_records table
+ * behind both. The table answers retries after a restart and keeps two instances from running
+ * the same key: a key is claimed by inserting its row, and a duplicate that finds someone
+ * else's unfinished row is told to retry later. A claim left behind by a crashed request is
+ * taken over after app.idempotency.staleClaimMs.
+ *
+ * A request that fails (5xx or an exception) is abandoned instead of completed: its claim is
+ * dropped and waiting duplicates try again themselves.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Value("${app.idempotency.staleClaimMs:60000}")
+    private long staleClaimMillis;
+
+    private final long ttlMillis;
+    private final BoundedCache<String, StoredResponse> completed;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder keyReused = new LongAdder();
+    private final LongAdder inProgressElsewhere = new LongAdder();
+
+    public IdempotencyStore(@Value("${app.idempotency.maxEntries:100000}") int maxEntries,
+                            @Value("${app.idempotency.ttlMs:86400000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.completed = new BoundedCache<>(maxEntries, Duration.ofMillis(ttlMillis));
+    }
+
+    /**
+     * Decide what to do with a request. On EXECUTE the caller owns the key and must finish with
+     * complete or abandon; on REPLAY it waits for the response future, which yields null if the
+     * first execution was abandoned.
+     */
+    public Claim claim(String key, String fingerprint) {
+        StoredResponse done = completed.get(key);
+        if (done != null) {
+            return replay(done, fingerprint);
+        }
+        InFlight mine = new InFlight(fingerprint);
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!running.fingerprint.equals(fingerprint)) {
+                keyReused.increment();
+                return Claim.of(Claim.Outcome.KEY_REUSED);
+            }
+            joined.increment();
+            return new Claim(Claim.Outcome.REPLAY, running.response);
+        }
+
+        try {
+            Instant now = Instant.now();
+            repository.deleteIfStale(key, now, now.minusMillis(staleClaimMillis));
+            if (repository.insertPending(key, fingerprint, now, now.plusMillis(ttlMillis)) == 1) {
+                executed.increment();
+                return Claim.of(Claim.Outcome.EXECUTE);
+            }
+            IdempotencyRecord record = repository.findById(key).orElse(null);
+            if (record == null || !record.isCompleted()) {
+                // Claimed by another instance that has not answered yet
+                release(key, mine, null);
+                inProgressElsewhere.increment();
+                return Claim.of(Claim.Outcome.IN_PROGRESS);
+            }
+            done = new StoredResponse(record.getFingerprint(), record.getStatusCode(), record.getContentType(),
+                    record.getBody() != null ? record.getBody() : new byte[0]);
+            completed.put(key, done, Duration.between(now, record.getExpiresAt()));
+            release(key, mine, done);
+            return replay(done, fingerprint);
+        } catch (RuntimeException e) {
+            release(key, mine, null);
+            throw e;
+        }
+    }
+
+    /** Store the response of an EXECUTE claim and hand it to waiting duplicates */
+    public void complete(String key, StoredResponse response) {
+        try {
+            repository.complete(key, response.status(), response.contentType(), response.body(),
+                    Instant.now().plusMillis(ttlMillis));
+        } catch (RuntimeException e) {
+            // Still served from memory; only a retry after a restart would run again
+            log.warn("Could not persist idempotent response for key {}: {}", key, e.getMessage());
+        }
+        completed.put(key, response);
+        InFlight running = inFlight.get(key);
+        if (running != null) {
+            release(key, running, response);
+        }
+    }
+
+    /** Give up an EXECUTE claim; waiting duplicates are woken up to try again */
+    public void abandon(String key) {
+        try {
+            repository.deletePending(key);
+        } catch (RuntimeException e) {
+            log.warn("Could not drop idempotency claim for key {}: {}", key, e.getMessage());
+        }
+        InFlight running = inFlight.get(key);
+        if (running != null) {
+            release(key, running, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.pruneIntervalMs:600000}")
+    public void pruneExpired() {
+        int deleted = repository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Pruned {} expired idempotency records", deleted);
+        }
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "executed", executed.sum(),
+                "replayed", replayed.sum(),
+                "joinedInFlight", joined.sum(),
+                "keyReused", keyReused.sum(),
+                "inProgressElsewhere", inProgressElsewhere.sum(),
+                "inFlight", (long) inFlight.size(),
+                "cachedResponses", (long) completed.size());
+    }
+
+    public CacheStats.Snapshot cacheStats() {
+        return completed.stats().snapshot();
+    }
+
+    private Claim replay(StoredResponse response, String fingerprint) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            keyReused.increment();
+            return Claim.of(Claim.Outcome.KEY_REUSED);
+        }
+        replayed.increment();
+        return new Claim(Claim.Outcome.REPLAY, CompletableFuture.completedFuture(response));
+    }
+
+    /** Remove the in-flight entry before completing it, so a woken duplicate cannot find it again */
+    private void release(String key, InFlight running, StoredResponse response) {
+        inFlight.remove(key, running);
+        running.response.complete(response);
+    }
+
+    /** What the filter should do with a request, and the response to replay if there is one */
+    public record Claim(Outcome outcome, CompletableFuture<StoredResponse> response) {
+
+        public enum Outcome {
+            /** First request with this key: run it */
+            EXECUTE,
+            /** Same key and body as an earlier request: answer with its response */
+            REPLAY,
+            /** Same key, different body */
+            KEY_REUSED,
+            /** Claimed on another instance and not finished yet */
+            IN_PROGRESS
+        }
+
+        static Claim of(Outcome outcome) {
+            return new Claim(outcome, null);
+        }
+    }
+
+    /** A response exactly as it was sent: status, content type and body bytes */
+    public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {}
+
+    private static final class InFlight {
+        final String fingerprint;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.ecommerce.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV: comma separated, fields optionally quoted, "" inside quotes is a quote, and
+ * quoted fields may span lines. The first record is a header naming the columns
+ * (name, description, price, stockQuantity, imageUrl, category; any order, case-insensitive).
+ */
+public class CsvProductRowReader implements ProductRowReader {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+
+    public CsvProductRowReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        List<String> header = readRecord();
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        List<String> fields;
+        long line;
+        do {
+            line = lineNumber + 1;
+            try {
+                fields = readRecord();
+            } catch (MalformedCsvException e) {
+                return ProductImportRow.malformed(line, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        return new ProductImportRow(line, field(fields, "name"), field(fields, "description"),
+                field(fields, "price"), field(fields, "stockquantity"), field(fields, "imageurl"),
+                field(fields, "category"), null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /** @return the fields of the next record, or null at end of input */
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                // Quoted field continues on the next line
+                line = reader.readLine();
+                if (line == null) {
+                    throw new MalformedCsvException("Unterminated quoted field");
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+    }
+
+    private static class MalformedCsvException extends IOException {
+        MalformedCsvException(String message) {
+            super(message);
+        }
+    }
+}
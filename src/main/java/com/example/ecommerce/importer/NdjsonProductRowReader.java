@@ -0,0 +1,64 @@
+package com.example.ecommerce.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Newline-delimited JSON: one object per line with the fields name, description, price,
+ * stockQuantity, imageUrl and category. A malformed line is reported and skipped.
+ */
+public class NdjsonProductRowReader implements ProductRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    public NdjsonProductRowReader(Reader reader, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return ProductImportRow.malformed(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return ProductImportRow.malformed(lineNumber, "Expected a JSON object");
+        }
+        return new ProductImportRow(lineNumber, text(node, "name"), text(node, "description"),
+                text(node, "price"), text(node, "stockQuantity"), text(node, "imageUrl"),
+                text(node, "category"), null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ecommerce.importer;
+
+/**
+ * One raw input record, still as text. error is set when the record could not even be parsed
+ * into fields (malformed JSON, unterminated quote), in which case the other fields are null.
+ */
+public record ProductImportRow(long line, String name, String description, String price, String stockQuantity,
+                               String imageUrl, String category, String error) {
+
+    static ProductImportRow malformed(long line, String error) {
+        return new ProductImportRow(line, null, null, null, null, null, null, error);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ecommerce.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** Streams records from an import file one at a time, so memory does not grow with file size */
+public interface ProductRowReader extends Closeable {
+
+    /** @return the next record, or null at end of input */
+    ProductImportRow next() throws IOException;
+
+}
@@ -0,0 +1,175 @@
+package com.example.ecommerce.inventory;
+
+import com.example.ecommerce.exception.InsufficientStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-limited stock holds for cart lines, so what a shopper put in the cart is still there at
+ * checkout.
+ *
+ * A hold sets units aside in StockReservationEngine for app.cartHolds.ttlMs; changing the line
+ * adjusts the held quantity and restarts the clock. Expiry runs on a TimerWheel instead of
+ * scanning holds or polling the database: each tick pops only the holds that are due, and
+ * their units go back to the engine summed per product. The wheel runs on System.nanoTime,
+ * so a wall-clock step (NTP) neither expires every hold at once nor stalls expiry; the wall
+ * clock only gives the expiresAt reported to clients. Holds live in memory only - after a
+ * restart the engine reloads stock without them, which releases them too.
+ */
+@Slf4j
+@Component
+public class CartHoldService {
+
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+
+    @Value("${app.cartHolds.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cartHolds.ttlMs:900000}")
+    private long ttlMillis;
+
+    private final TimerWheel<HoldKey> wheel;
+    private final Map<HoldKey, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong expiredHolds = new AtomicLong();
+
+    public CartHoldService(@Value("${app.cartHolds.tickMs:1000}") long tickMillis) {
+        this.wheel = new TimerWheel<>(tickMillis, monotonicMillis());
+    }
+
+    /**
+     * Hold quantity units of a product for a cart line (0 drops the hold). If the surrounding
+     * transaction rolls back, the previous hold is put back.
+     *
+     * @throws InsufficientStockException if the extra units cannot be held
+     */
+    public void hold(long cartId, long productId, String productName, int quantity) {
+        if (!enabled) {
+            return;
+        }
+        HoldKey key = new HoldKey(cartId, productId);
+        int previous = adjust(key, quantity, productName, true);
+        if (previous != quantity && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        adjust(key, previous, productName, false);
+                    }
+                }
+            });
+        }
+    }
+
+    /** Drop the hold on a cart line, returning its units */
+    public void release(long cartId, long productId) {
+        hold(cartId, productId, null, 0);
+    }
+
+    /** Held quantity and expiry of a cart line, or null if nothing is held */
+    public HoldStatus status(long cartId, long productId) {
+        Hold hold = holds.get(new HoldKey(cartId, productId));
+        return hold != null ? new HoldStatus(hold.quantity(), Instant.ofEpochMilli(hold.expiresAtMillis())) : null;
+    }
+
+    /** Return the units of every hold that came due, summed per product */
+    @Scheduled(fixedDelayString = "${app.cartHolds.tickMs:1000}")
+    public void expire() {
+        List<TimerWheel.Timeout<HoldKey>> due = wheel.advance(monotonicMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> releases = new HashMap<>();
+        int expired = 0;
+        for (TimerWheel.Timeout<HoldKey> timeout : due) {
+            int[] quantity = new int[1];
+            // Only if the line was not changed (and rescheduled) since this timeout was popped
+            holds.computeIfPresent(timeout.payload(), (key, current) -> {
+                if (current.timeout() != timeout) {
+                    return current;
+                }
+                quantity[0] = current.quantity();
+                return null;
+            });
+            if (quantity[0] > 0) {
+                releases.merge(timeout.payload().productId(), quantity[0], Integer::sum);
+                expired++;
+            }
+        }
+        releases.forEach(stockReservationEngine::releaseHold);
+        expiredHolds.addAndGet(expired);
+        if (expired > 0) {
+            log.debug("Expired {} cart holds across {} products", expired, releases.size());
+        }
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "activeHolds", (long) holds.size(),
+                "scheduledTimeouts", (long) wheel.size(),
+                "expiredHolds", expiredHolds.get());
+    }
+
+    /**
+     * Set the held quantity of a line, taking or returning the difference.
+     *
+     * @param strict throw if extra units are not available; otherwise hold what is there
+     * @return the quantity held before
+     */
+    private int adjust(HoldKey key, int quantity, String productName, boolean strict) {
+        if (quantity > 0) {
+            // Loads a cold product's counter (a query) here rather than under the map's bin lock
+            stockReservationEngine.available(key.productId());
+        }
+        int[] previous = new int[1];
+        holds.compute(key, (k, hold) -> {
+            int held = hold != null ? hold.quantity() : 0;
+            previous[0] = held;
+            int target = quantity;
+            if (target > held && !stockReservationEngine.tryHold(key.productId(), target - held)) {
+                if (strict) {
+                    throw new InsufficientStockException(productName, quantity,
+                            held + stockReservationEngine.available(key.productId()));
+                }
+                target = held;
+            } else if (target < held) {
+                stockReservationEngine.releaseHold(key.productId(), held - target);
+            }
+            if (hold != null) {
+                wheel.cancel(hold.timeout());
+            }
+            if (target <= 0) {
+                return null;
+            }
+            return new Hold(target, System.currentTimeMillis() + ttlMillis,
+                    wheel.schedule(key, monotonicMillis() + ttlMillis));
+        });
+        return previous[0];
+    }
+
+    private static long monotonicMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    public record HoldStatus(int quantity, Instant expiresAt) {}
+
+    private record HoldKey(long cartId, long productId) {}
+
+    /**
+     * Replaced, never changed, inside holds.compute; the timeout tells a stale expiry from the live
+     * one. expiresAtMillis is wall-clock time for HoldStatus only.
+     */
+    private record Hold(int quantity, long expiresAtMillis, TimerWheel.Timeout<HoldKey> timeout) {}
+}
@@ -0,0 +1,355 @@
+package com.example.ecommerce.inventory;
+
+import com.example.ecommerce.event.ProductChangedEvent;
+import com.example.ecommerce.event.StockFlushedEvent;
+import com.example.ecommerce.exception.ResourceNotFoundException;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductFacetRow;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Authoritative available stock per product, held in memory and written behind to
+ * products.stock_quantity.
+ *
+ * Each product has an atomic counter; taking units is one compare-and-set that never lets it
+ * go below zero, so a hot SKU can neither oversell nor queue on a row lock. Counters are split
+ * into stripes by product id, each with its own set of products that have unflushed changes,
+ * and every app.stock.flushIntervalMs the net change per product is written with one batched
+ * "stock_quantity = stock_quantity + delta" statement, in id order.
+ *
+ * Units are taken by holds (see CartHoldService), which write nothing behind: checkout then
+ * decrements stock_quantity through the versioned Product entity and releases the holds, and
+ * a crash drops live holds instead of leaking their units. What is written behind are units
+ * given back outside the entity with release; cancelled orders use restock instead, which
+ * writes in the cancelling transaction.
+ *
+ * State is recovered by reloading stock_quantity at startup (products touched before the load
+ * reaches them are loaded on demand). Pending deltas are flushed on shutdown; a hard crash
+ * loses at most one flush interval of released units.
+ *
+ * Writes through the Product entity (admin stock edits, checkout) arrive as
+ * ProductChangedEvents and are applied as deltas. The flush bumps products.version, so an
+ * entity write that read the row before a flush fails its optimistic check instead of
+ * overwriting the flushed stock. The flush reads the rows back before it commits and publishes
+ * their stock_quantity before and after the write as a StockFlushedEvent; that is on-hand
+ * stock, so live holds never show up in it.
+ */
+@Slf4j
+@Component
+public class StockReservationEngine {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.stock.flushBatchSize:1000}")
+    private int flushBatchSize;
+
+    @Value("${app.stock.loadBatchSize:20000}")
+    private int loadBatchSize;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong holds = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private volatile boolean loaded;
+
+    public StockReservationEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /** Set quantity units aside without selling them; nothing is written to the database */
+    public boolean tryHold(long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        if (!take(counter(productId).available, quantity)) {
+            rejections.incrementAndGet();
+            return false;
+        }
+        holds.incrementAndGet();
+        return true;
+    }
+
+    /** Return held units to the available count (hold expired, cart line reduced) */
+    public void releaseHold(long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        counter(productId).available.addAndGet(quantity);
+    }
+
+    /** Put units back on sale and written behind to stock_quantity (a cancelled order) */
+    public void release(long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        StockCounter counter = counter(productId);
+        counter.available.addAndGet(quantity);
+        record(productId, counter, quantity);
+    }
+
+    /**
+     * Add units to stock_quantity inside the caller's transaction (cancelled orders), so they
+     * commit or roll back with it. The counters move and a StockFlushedEvent is published once
+     * that transaction has committed.
+     */
+    public void restock(Map<Long, Integer> quantities) {
+        List<long[]> deltas = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("quantity must be positive");
+            }
+            deltas.add(new long[]{productId, quantity});
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.sort((a, b) -> Long.compare(a[0], b[0]));
+        StockFlushedEvent written = write(deltas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (int i = 0; i < written.productIds().length; i++) {
+                    // A product without a counter reads the committed stock when it is first used
+                    StockCounter counter = stripe(written.productIds()[i]).counters.get(written.productIds()[i]);
+                    if (counter != null) {
+                        counter.available.addAndGet(written.stockQuantities()[i] - written.previousStockQuantities()[i]);
+                    }
+                }
+                eventPublisher.publishEvent(written);
+            }
+        });
+    }
+
+    public int available(long productId) {
+        return counter(productId).available.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Stripe stripe = stripe(event.productId());
+        if (event.after() == null) {
+            // Unflushed deltas of a deleted product have nothing left to update
+            stripe.counters.remove(event.productId());
+            stripe.dirty.remove(event.productId());
+            return;
+        }
+        int stock = event.after().stockQuantity() != null ? event.after().stockQuantity() : 0;
+        StockCounter created = new StockCounter(stock);
+        StockCounter existing = stripe.counters.putIfAbsent(event.productId(), created);
+        if (existing != null && event.stockChanged()) {
+            // The entity write already reached the database; only the in-memory view moves
+            existing.available.addAndGet(event.after().stockQuantity() - event.before().stockQuantity());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        int count = 0;
+        List<ProductFacetRow> batch;
+        do {
+            batch = productRepository.findFacetRowsAfter(afterId, Limit.of(loadBatchSize));
+            for (ProductFacetRow row : batch) {
+                // Counters created on demand or from events in the meantime are newer than this read
+                stripe(row.id()).counters.putIfAbsent(row.id(),
+                        new StockCounter(row.stockQuantity() != null ? row.stockQuantity() : 0));
+                afterId = row.id();
+                count++;
+            }
+        } while (batch.size() == loadBatchSize);
+        loaded = true;
+        log.info("Stock reservation engine loaded {} products in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Write the net change of every dirty product to stock_quantity; skipped while a flush runs */
+    @Scheduled(fixedDelayString = "${app.stock.flushIntervalMs:200}")
+    public void flush() {
+        if (flushLock.tryLock()) {
+            flushLocked();
+        }
+    }
+
+    /** Waits for a running flush, so nothing drained by it is left behind */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        flushLocked();
+    }
+
+    public Map<String, Long> stats() {
+        long products = 0;
+        long dirty = 0;
+        for (Stripe stripe : stripes) {
+            products += stripe.counters.size();
+            dirty += stripe.dirty.size();
+        }
+        return Map.of(
+                "products", products,
+                "dirtyProducts", dirty,
+                "holds", holds.get(),
+                "rejections", rejections.get(),
+                "flushedRows", flushedRows.get(),
+                "loaded", loaded ? 1L : 0L);
+    }
+
+    /** Called with flushLock held; releases it before the listeners run */
+    private void flushLocked() {
+        List<StockFlushedEvent> flushed = new ArrayList<>();
+        try {
+            List<long[]> deltas = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                for (Long productId : stripe.dirty) {
+                    // Un-mark before draining: a change made after getAndSet marks the product again
+                    stripe.dirty.remove(productId);
+                    StockCounter counter = stripe.counters.get(productId);
+                    int delta = counter != null ? counter.unflushed.getAndSet(0) : 0;
+                    if (delta != 0) {
+                        deltas.add(new long[]{productId, delta});
+                    }
+                }
+            }
+            // Id order, so concurrent flushers from several instances lock rows in the same order
+            deltas.sort((a, b) -> Long.compare(a[0], b[0]));
+            for (int from = 0; from < deltas.size(); from += flushBatchSize) {
+                List<long[]> chunk = deltas.subList(from, Math.min(deltas.size(), from + flushBatchSize));
+                try {
+                    flushed.add(new TransactionTemplate(transactionManager).execute(status -> write(chunk)));
+                } catch (RuntimeException e) {
+                    log.warn("Stock flush of {} products failed, will retry: {}", chunk.size(), e.getMessage());
+                    for (long[] delta : chunk) {
+                        StockCounter counter = stripe(delta[0]).counters.get(delta[0]);
+                        if (counter != null) {
+                            record(delta[0], counter, (int) delta[1]);
+                        }
+                    }
+                    continue;
+                }
+                flushedRows.addAndGet(chunk.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        // Committed: a failing listener must not send these deltas through the retry path again
+        flushed.forEach(eventPublisher::publishEvent);
+    }
+
+    /**
+     * Add each {productId, delta} to stock_quantity and read the rows back in the same
+     * transaction. The update keeps the rows locked until commit, so the values read are the
+     * ones committed; deleted products are left out.
+     */
+    private StockFlushedEvent write(List<long[]> deltas) {
+        jdbcTemplate.batchUpdate(
+                "update products set stock_quantity = stock_quantity + ?, version = version + 1, " +
+                        "updated_at = current_timestamp where id = ?",
+                deltas.stream().map(d -> new Object[]{(int) d[1], d[0]}).toList());
+        Map<Long, Integer> deltaById = new HashMap<>();
+        for (long[] delta : deltas) {
+            deltaById.put(delta[0], (int) delta[1]);
+        }
+        List<ProductFacetRow> rows = productRepository.findFacetRowsByIdIn(deltaById.keySet());
+        long[] productIds = new long[rows.size()];
+        int[] previous = new int[rows.size()];
+        int[] stock = new int[rows.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            ProductFacetRow row = rows.get(i);
+            productIds[i] = row.id();
+            stock[i] = row.stockQuantity() != null ? row.stockQuantity() : 0;
+            previous[i] = stock[i] - deltaById.get(row.id());
+        }
+        return new StockFlushedEvent(productIds, previous, stock);
+    }
+
+    /** Decrement by quantity unless that would go below zero */
+    private static boolean take(AtomicInteger available, int quantity) {
+        int current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private void record(long productId, StockCounter counter, int delta) {
+        counter.unflushed.addAndGet(delta);
+        stripe(productId).dirty.add(productId);
+    }
+
+    private StockCounter counter(long productId) {
+        Stripe stripe = stripe(productId);
+        StockCounter counter = stripe.counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        // Not loaded yet (startup still running) or created on another instance
+        int stock = productRepository.findStockQuantityById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        return stripe.counters.computeIfAbsent(productId, id -> new StockCounter(stock));
+    }
+
+    private Stripe stripe(long productId) {
+        return stripes[(int) (productId ^ (productId >>> 32)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+        final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    }
+
+    private static final class StockCounter {
+        /** Units that can still be reserved */
+        final AtomicInteger available;
+        /** Net change not yet written to stock_quantity */
+        final AtomicInteger unflushed = new AtomicInteger();
+
+        StockCounter(int available) {
+            this.available = new AtomicInteger(available);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.ecommerce.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timer wheel: 4 levels of 64 slots, level n slots spanning 64^n ticks.
+ *
+ * Scheduling and cancelling are O(1) (link/unlink in a slot's list). Each tick expires one
+ * level-0 slot; whenever a level wraps, one slot of the next level is re-distributed into the
+ * lower levels, so a timeout moves at most 3 times before it fires. With 1 s ticks the wheel
+ * spans about 194 days; later deadlines park in the top level and are re-placed as it turns.
+ *
+ * Time is passed in by the caller (any monotonic millisecond clock). All methods take one
+ * lock; advance returns the expired timeouts so the caller acts on them unlocked.
+ */
+public class TimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout<T>[][] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.slots = new Timeout[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<T> head = new Timeout<>(null, 0);
+                head.prev = head;
+                head.next = head;
+                slots[level][slot] = head;
+            }
+        }
+    }
+
+    /** Fire payload once deadlineMillis has passed (rounded up to the next tick) */
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(payload, deadlineTick);
+        lock.lock();
+        try {
+            // The current tick's slot has been expired already: overdue timeouts fire on the next one
+            place(timeout, currentTick + 1);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        return timeout;
+    }
+
+    /** @return false if the timeout already fired or was cancelled */
+    public boolean cancel(Timeout<T> timeout) {
+        lock.lock();
+        try {
+            if (timeout.next == null) {
+                return false;
+            }
+            unlink(timeout);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Move the wheel up to nowMillis and return every timeout that came due, oldest first */
+    public List<Timeout<T>> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<Timeout<T>> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                currentTick++;
+                // Re-distribute wrapped upper-level slots first: entries due on this very tick land
+                // in the level-0 slot expired just below
+                for (int level = LEVELS - 1; level >= 1; level--) {
+                    if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                        cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                    }
+                }
+                Timeout<T> head = slots[0][(int) currentTick & SLOT_MASK];
+                while (head.next != head) {
+                    Timeout<T> timeout = head.next;
+                    unlink(timeout);
+                    if (timeout.deadlineTick <= currentTick) {
+                        size--;
+                        expired.add(timeout);
+                    } else {
+                        place(timeout, currentTick + 1);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Timeout<T> head = slots[level][slot];
+        while (head.next != head) {
+            Timeout<T> timeout = head.next;
+            unlink(timeout);
+            place(timeout, currentTick);
+        }
+    }
+
+    /** Link timeout into the slot of its deadline, or of earliestTick if that is later */
+    private void place(Timeout<T> timeout, long earliestTick) {
+        long tick = Math.max(timeout.deadlineTick, earliestTick);
+        long delta = tick - currentTick;
+        if (delta >= MAX_SPAN_TICKS) {
+            tick = currentTick + MAX_SPAN_TICKS - 1;
+            delta = MAX_SPAN_TICKS - 1;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        Timeout<T> head = slots[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK];
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+
+    private static <T> void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    /** Handle for a scheduled payload; also its node in the slot list */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+    }
+}
@@ -15,6 +15,5 @@ public class method {
             }
         }
         return count;
-        HashSet
     }
 }
@@ -0,0 +1,42 @@
+package com.example.ecommerce.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Everything recorded for one (method, route template, status) combination.
+ */
+public class EndpointMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder jdbcStatements = new LongAdder();
+    private final LongAdder allocationSamples = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    void record(long elapsedNanos, int statements) {
+        latency.recordNanos(elapsedNanos);
+        jdbcStatements.add(statements);
+    }
+
+    void recordAllocation(long bytes) {
+        allocationSamples.increment();
+        allocatedBytes.add(bytes);
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public double getAvgJdbcStatements() {
+        long count = latency.getCount();
+        return count == 0 ? 0.0 : (double) jdbcStatements.sum() / count;
+    }
+
+    public long getAllocationSamples() {
+        return allocationSamples.sum();
+    }
+
+    public double getAvgAllocatedBytes() {
+        long samples = allocationSamples.sum();
+        return samples == 0 ? 0.0 : (double) allocatedBytes.sum() / samples;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.ecommerce.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint metrics keyed by HTTP method, route template and status code.
+ * Keys are route templates (/api/v1/products/{id}), not raw paths, and the number of keys
+ * is capped so a scan of random URLs cannot grow the registry without bound.
+ */
+@Component
+public class EndpointMetricsRegistry {
+
+    static final String OVERFLOW_ROUTE = "_other";
+
+    private final ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final int maxEndpoints;
+
+    public EndpointMetricsRegistry(@Value("${app.metrics.maxEndpoints:500}") int maxEndpoints) {
+        this.maxEndpoints = maxEndpoints;
+    }
+
+    public EndpointMetrics forEndpoint(String method, String route, int status) {
+        String key = method + " " + route + " " + status;
+        EndpointMetrics metrics = endpoints.get(key);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (endpoints.size() >= maxEndpoints) {
+            key = method + " " + OVERFLOW_ROUTE + " " + status;
+        }
+        return endpoints.computeIfAbsent(key, k -> new EndpointMetrics());
+    }
+
+    public List<EndpointSnapshot> snapshot() {
+        List<EndpointSnapshot> snapshots = new ArrayList<>();
+        endpoints.forEach((key, metrics) -> {
+            String[] parts = key.split(" ", 3);
+            LatencyHistogram latency = metrics.getLatency();
+            snapshots.add(new EndpointSnapshot(parts[0], parts[1], Integer.parseInt(parts[2]),
+                    latency.getCount(), latency.getMeanMillis(),
+                    latency.getPercentileMillis(50), latency.getPercentileMillis(90),
+                    latency.getPercentileMillis(99), latency.getPercentileMillis(99.9),
+                    latency.getMaxMillis(), metrics.getAvgJdbcStatements(),
+                    metrics.getAvgAllocatedBytes(), metrics.getAllocationSamples()));
+        });
+        snapshots.sort(Comparator.comparing(EndpointSnapshot::route)
+                .thenComparing(EndpointSnapshot::method)
+                .thenComparingInt(EndpointSnapshot::status));
+        return snapshots;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    public record EndpointSnapshot(String method, String route, int status, long count, double meanMs,
+                                   double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs,
+                                   double avgJdbcStatements, double avgAllocatedBytes, long allocationSamples) {}
+}
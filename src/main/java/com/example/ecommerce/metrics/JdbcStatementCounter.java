@@ -0,0 +1,30 @@
+package com.example.ecommerce.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate StatementInspector that counts SQL statements prepared on the current thread.
+ * Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector;
+ * Hibernate instantiates it itself, hence the static per-thread counter.
+ *
+ * Only statements issued through Hibernate are counted, not direct JdbcTemplate calls.
+ */
+public class JdbcStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /** Statements counted on this thread since the last reset */
+    public static int current() {
+        return COUNT.get()[0];
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.ecommerce.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram in microseconds.
+ *
+ * Values below 32us get exact buckets; above that every power of two is split into 32
+ * linear sub-buckets, so any recorded value is reported within ~3% (the HdrHistogram layout).
+ * Recording is one array increment plus two adders - no locks, no allocation - which keeps
+ * it cheap enough to run on every request in production.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Up to 2^40 us (~12 days); anything larger lands in the last bucket
+    private static final int MAX_MAGNITUDE = 40;
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public void recordNanos(long nanos) {
+        recordMicros(Math.max(0, nanos / 1_000));
+    }
+
+    public void recordMicros(long micros) {
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : sumMicros.sum() / 1_000.0 / n;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1_000.0;
+    }
+
+    /**
+     * Value at the given percentile (0-100) in milliseconds. Reads are not atomic across buckets,
+     * which is fine for reporting: concurrent recordings only shift the result by a few samples.
+     */
+    public double getPercentileMillis(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(bucketMidpoint(i), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+        int group = magnitude - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) ((micros >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+        return (group << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    static long bucketMidpoint(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int group = index >>> SUB_BUCKET_BITS;
+        int subBucket = index & (SUB_BUCKET_COUNT - 1);
+        long lower = (long) (SUB_BUCKET_COUNT + subBucket) << (group - 1);
+        long width = 1L << (group - 1);
+        return lower + width / 2;
+    }
+}
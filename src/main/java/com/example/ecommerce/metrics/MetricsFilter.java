@@ -0,0 +1,85 @@
+package com.example.ecommerce.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * First filter in the security chain: times every request, including authentication and
+ * rate limiting, and records it under its route template and status code.
+ *
+ * Per-request allocated bytes are sampled (1 in app.metrics.allocationSampleRate requests)
+ * from the HotSpot per-thread allocation counter; JDBC statements are counted on every
+ * request via JdbcStatementCounter.
+ */
+@Component
+public class MetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED_ROUTE = "_unmatched";
+
+    @Autowired
+    private EndpointMetricsRegistry registry;
+
+    @Value("${app.metrics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.metrics.allocationSampleRate:16}")
+    private int allocationSampleRate;
+
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final com.sun.management.ThreadMXBean threadMXBean = allocationBean();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean sampleAllocation = threadMXBean != null && allocationSampleRate > 0
+                && requestCounter.incrementAndGet() % allocationSampleRate == 0;
+        long allocatedBefore = sampleAllocation ? threadMXBean.getCurrentThreadAllocatedBytes() : -1;
+        int statementsBefore = JdbcStatementCounter.current();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            EndpointMetrics metrics = registry.forEndpoint(request.getMethod(), route(request), response.getStatus());
+            metrics.record(elapsed, JdbcStatementCounter.current() - statementsBefore);
+            if (allocatedBefore >= 0) {
+                long allocatedAfter = threadMXBean.getCurrentThreadAllocatedBytes();
+                if (allocatedAfter >= 0) {
+                    metrics.recordAllocation(allocatedAfter - allocatedBefore);
+                }
+            }
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+    }
+
+    /** Null when the JVM does not expose per-thread allocation counters */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.ecommerce.model;
 
+import com.example.ecommerce.pricing.CartQuote;
+import com.example.ecommerce.pricing.ProductPriceTable;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Entity
 @Table(name = "carts")
@@ -24,6 +28,28 @@ public class Cart {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Running totals, kept in step by the mutators below and re-derived by CartTotalsListener
+    // when a product price changes, so reading them never touches the items
+    @Column(name = "subtotal", precision = 12, scale = 2, nullable = false)
+    @ColumnDefault("0")
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Column(name = "total_items", nullable = false)
+    @ColumnDefault("0")
+    private int totalItems;
+
+    // Optimistic lock for the running totals, which are read-modify-written in memory: a cart
+    // write or price re-derivation that committed in between makes this one fail instead of
+    // overwriting it with a stale sum
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    // Lines keyed by product id: add/update/remove are map operations, not scans
+    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @MapKey(name = "productId")
+    private Map<Long, CartItem> items = new LinkedHashMap<>();
 
     @PrePersist
     protected void onCreate() {
@@ -38,15 +64,26 @@ public class Cart {
 
     // Business methods
     public BigDecimal getTotalPrice() {
-        return items.stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return subtotal;
+    }
+
+    /**
+     * Total and availability from the in-memory price table. Only the lines' product_id column
+     * is read, so no Product is loaded.
+     */
+    public CartQuote quote(ProductPriceTable prices) {
+        long[] productIds = new long[items.size()];
+        int[] quantities = new int[items.size()];
+        int i = 0;
+        for (CartItem item : items.values()) {
+            productIds[i] = item.getProductId();
+            quantities[i++] = item.getQuantity();
+        }
+        return prices.quote(productIds, quantities);
     }
 
     public int getTotalItems() {
-        return items.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        return totalItems;
     }
 
     public void addItem(Product product, int quantity) {
@@ -55,13 +92,17 @@ public class Cart {
             existingItem.setQuantity(existingItem.getQuantity() + quantity);
         } else {
             CartItem newItem = new CartItem(this, product, quantity);
-            items.add(newItem);
+            items.put(newItem.getProductId(), newItem);
         }
+        adjustTotals(product.getPrice(), quantity);
         onUpdate();
     }
 
     public void removeItem(Product product) {
-        items.removeIf(item -> item.getProduct().getId().equals(product.getId()));
+        CartItem removed = items.remove(product.getId());
+        if (removed != null) {
+            adjustTotals(removed.getProduct().getPrice(), -removed.getQuantity());
+        }
         onUpdate();
     }
 
@@ -71,6 +112,7 @@ public class Cart {
             if (quantity <= 0) {
                 removeItem(product);
             } else {
+                adjustTotals(item.getProduct().getPrice(), quantity - item.getQuantity());
                 item.setQuantity(quantity);
                 onUpdate();
             }
@@ -79,9 +121,30 @@ public class Cart {
 
     public void clear() {
         items.clear();
+        subtotal = BigDecimal.ZERO;
+        totalItems = 0;
         onUpdate();
     }
 
+    private void adjustTotals(BigDecimal unitPrice, int quantityDelta) {
+        subtotal = subtotal.add(unitPrice.multiply(BigDecimal.valueOf(quantityDelta)));
+        totalItems += quantityDelta;
+    }
+
+    private CartItem findItemByProduct(Product product) {
+        return items.get(product.getId());
+    }
+
+    /** The line for a product, or null */
+    public CartItem getItem(Long productId) {
+        return items.get(productId);
+    }
+
+    public int getQuantity(Long productId) {
+        CartItem item = items.get(productId);
+        return item != null ? item.getQuantity() : 0;
+    }
+
 
     // Constructors
     public Cart() {}
@@ -103,6 +166,10 @@ public class Cart {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
-    public List<CartItem> getItems() { return items; }
-    public void setItems(List<CartItem> items) { this.items = items; }
+    public BigDecimal getSubtotal() { return subtotal; }
+
+    public Long getVersion() { return version; }
+
+    public Collection<CartItem> getItems() { return items.values(); }
+    public void setItems(Map<Long, CartItem> items) { this.items = items; }
 }
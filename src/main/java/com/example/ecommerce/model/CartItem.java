@@ -1,7 +1,5 @@
-package com.ecommerce.model;
+package com.example.ecommerce.model;
 
-import com.example.ecommerce.model.Cart;
-import com.example.ecommerce.model.Product;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -12,8 +10,14 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "cart_items")
 public class CartItem {
+
+    public static final int ID_BLOCK_SIZE = 100;
+
+    // ✨ Pooled ids (see Product): a batch cart update inserts all new lines in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_item_id")
+    @TableGenerator(name = "cart_item_id", table = "id_blocks", pkColumnName = "entity", valueColumnName = "next_id",
+            pkColumnValue = "cart_items", allocationSize = CartItem.ID_BLOCK_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -24,6 +28,10 @@ public class CartItem {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
+    // ✨ Read-only copy of the product_id column: the key of Cart.items, readable without touching the proxy
+    @Column(name = "product_id", insertable = false, updatable = false)
+    private Long productId;
+
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
@@ -56,6 +64,7 @@ public class CartItem {
     public CartItem(Cart cart, Product product, Integer quantity) {
         this.cart = cart;
         this.product = product;
+        this.productId = product.getId();
         this.quantity = quantity;
     }
 
@@ -74,7 +83,12 @@ public class CartItem {
     public void setCart(Cart cart) { this.cart = cart; }
 
     public Product getProduct() { return product; }
-    public void setProduct(Product product) { this.product = product; }
+    public void setProduct(Product product) {
+        this.product = product;
+        this.productId = product != null ? product.getId() : null;
+    }
+
+    public Long getProductId() { return productId; }
 
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { 
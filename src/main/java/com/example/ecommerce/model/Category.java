@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -44,6 +45,22 @@ public class Category {
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Product> products;
 
+    // ✨ Maintained counters (see CategoryCounterListener) - read these instead of products.size()
+
+    @ColumnDefault("0")
+    @Column(name = "product_count", nullable = false)
+    private int productCount;
+
+    /** Products with active = true */
+    @ColumnDefault("0")
+    @Column(name = "active_product_count", nullable = false)
+    private int activeProductCount;
+
+    /** Active products with stock_quantity > 0 */
+    @ColumnDefault("0")
+    @Column(name = "in_stock_product_count", nullable = false)
+    private int inStockProductCount;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -68,11 +85,11 @@ public class Category {
     // ✨ Business methods - USED in business logic
 
     public boolean hasProducts() {
-        return products != null && !products.isEmpty();
+        return productCount > 0;
     }
 
     public int getProductCount() {
-        return products != null ? products.size() : 0;
+        return productCount;
     }
 
     // ✨ Lombok generates all standard getters/setters, equals/hashCode, toString automatically!
@@ -0,0 +1,54 @@
+package com.example.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * Durable copy of a response to a request sent with an Idempotency-Key, so a retry after a
+ * restart (or on another instance) is still answered from it. A row without a status code
+ * marks a request that is still running. Rows are pruned once they expire.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+})
+@Getter @Setter
+@NoArgsConstructor                                 // ✨ Required by JPA
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = "body")
+@Accessors(chain = true)
+public class IdempotencyRecord {
+
+    /** SHA-256 (hex) of caller, method, path and Idempotency-Key */
+    @Id
+    @Column(name = "record_key", length = 64)
+    @EqualsAndHashCode.Include
+    private String recordKey;
+
+    /** SHA-256 (hex) of the request body; a retry must send the same body */
+    @Column(name = "fingerprint", length = 64, nullable = false)
+    private String fingerprint;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(name = "body", columnDefinition = "LONGBLOB")
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+}
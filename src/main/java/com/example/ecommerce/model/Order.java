@@ -1,6 +1,7 @@
 package com.example.ecommerce.model;
 
 import com.example.ecommerce.model.User;
+import com.example.ecommerce.order.OrderStateMachine;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -94,30 +95,40 @@ public class Order {
     }
 
     public void addOrderItem(Product product, int quantity, BigDecimal unitPrice) {
-       // if()
-        //orderItems.add(orderItem);
+        orderItems.add(OrderItem.createWithPrice(this, product, quantity, unitPrice));
     }
 
-    public boolean canBeCancelled() {
-        return status == OrderStatus.PENDING || status == OrderStatus.CONFIRMED;
+    // ✨ Status changes go through the OrderStateMachine table
+
+    public Order transitionTo(OrderStatus target) {
+        OrderStateMachine.requireTransition(status, target);
+        return this.setStatus(target);
     }
 
-    public void cancel() {
+    public boolean canBeCancelled() {
+        return OrderStateMachine.canTransition(status, OrderStatus.CANCELLED);
+    }
 
+    public Order cancel() {
+        return transitionTo(OrderStatus.CANCELLED);
     }
 
     // ✨ Business methods - ONLY methods actually used in OrderService
     
     public boolean isPending() {
+        return status == OrderStatus.PENDING;
     }
 
     public boolean isCompleted() {
+        return status == OrderStatus.DELIVERED;
     }
 
     public boolean isActive() {
+        return status != OrderStatus.CANCELLED && status != OrderStatus.REFUNDED && status != OrderStatus.DELIVERED;
     }
 
     public boolean hasItems() {
+        return orderItems != null && !orderItems.isEmpty();
     }
 
     // ✨ Lombok generates all other getters/setters automatically!
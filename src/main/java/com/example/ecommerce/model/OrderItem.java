@@ -22,8 +22,14 @@ import java.time.LocalDateTime;
 @ToString(exclude = {"order", "product"})         // ✨ Exclude lazy collections
 @Accessors(chain = true)                          // ✨ Enable method chaining
 public class OrderItem {
+
+    public static final int ID_BLOCK_SIZE = 100;
+
+    // ✨ Pooled ids (see Product): checkout inserts all lines of an order in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id")
+    @TableGenerator(name = "order_item_id", table = "id_blocks", pkColumnName = "entity", valueColumnName = "next_id",
+            pkColumnValue = "order_items", allocationSize = OrderItem.ID_BLOCK_SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -60,7 +66,7 @@ public class OrderItem {
     // ✨ Static Factory Methods with descriptive names (moved from OrderItemFactory)
 
     /** Create OrderItem from CartItem */
-    public static OrderItem fromCartItem(Order order, com.ecommerce.model.CartItem cartItem) {
+    public static OrderItem fromCartItem(Order order, CartItem cartItem) {
         return new OrderItem()
                 .setOrder(order)
                 .setProduct(cartItem.getProduct())
@@ -0,0 +1,35 @@
+package com.example.ecommerce.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+/** Stores OrderSummary.preview as a JSON array */
+@Converter
+public class OrderPreviewConverter implements AttributeConverter<List<OrderSummary.PreviewItem>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<OrderSummary.PreviewItem>> TYPE = new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(List<OrderSummary.PreviewItem> preview) {
+        try {
+            return preview != null ? MAPPER.writeValueAsString(preview) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize order preview", e);
+        }
+    }
+
+    @Override
+    public List<OrderSummary.PreviewItem> convertToEntityAttribute(String json) {
+        try {
+            return json != null ? MAPPER.readValue(json, TYPE) : List.of();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read order preview", e);
+        }
+    }
+}
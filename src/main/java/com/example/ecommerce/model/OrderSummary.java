@@ -0,0 +1,105 @@
+package com.example.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read model of an order for "my orders": everything the list shows, in one row per order,
+ * so a page is a single indexed query with no joins. Written by OrderSummaryProjector in the
+ * transactions that create orders and change their status.
+ */
+@Entity
+@Table(name = "order_summaries", indexes = {
+        // ✨ Keyset pagination: a user's orders, newest (highest id) first
+        @Index(name = "idx_order_summaries_user_order", columnList = "user_id, order_id")
+})
+@Getter @Setter                                    // ✨ Lombok: Generate getters/setters
+@NoArgsConstructor                                 // ✨ Required by JPA
+@EqualsAndHashCode(onlyExplicitlyIncluded = true) // ✨ Only use ID for equals/hashCode (JPA best practice)
+@ToString(exclude = "isNew")
+@Accessors(chain = true)                          // ✨ Enable method chaining
+public class OrderSummary implements Persistable<Long> {
+
+    /** Lines shown per order in the list */
+    public static final int PREVIEW_ITEMS = 3;
+
+    // ✨ Same id as the order; assigned, not generated
+    @Id
+    @Column(name = "order_id")
+    @EqualsAndHashCode.Include
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Order.OrderStatus status;
+
+    @Column(name = "total_amount", precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "total_items", nullable = false)
+    private int totalItems;
+
+    @Column(name = "line_count", nullable = false)
+    private int lineCount;
+
+    // ✨ First PREVIEW_ITEMS lines as JSON, so the list needs neither order_items nor products
+    @Convert(converter = OrderPreviewConverter.class)
+    @Column(name = "preview", columnDefinition = "TEXT")
+    private List<PreviewItem> preview;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // ✨ Assigned ids look "not new" to Spring Data; this saves save() a select-before-insert
+    @Transient
+    private boolean isNew = true;
+
+    public record PreviewItem(Long productId, String name, String imageUrl, int quantity) {}
+
+    /** Summarize an order whose items and their products are loaded */
+    public static OrderSummary of(Order order) {
+        List<PreviewItem> preview = order.getOrderItems().stream()
+                .limit(PREVIEW_ITEMS)
+                .map(item -> new PreviewItem(item.getProduct().getId(), item.getProduct().getName(),
+                        item.getProduct().getImageUrl(), item.getQuantity()))
+                .toList();
+        return new OrderSummary()
+                .setOrderId(order.getId())
+                .setUserId(order.getUser().getId())
+                .setStatus(order.getStatus())
+                .setTotalAmount(order.getTotalAmount())
+                .setTotalItems(order.getTotalItems())
+                .setLineCount(order.getOrderItems().size())
+                .setPreview(preview)
+                .setCreatedAt(order.getCreatedAt())
+                .setUpdatedAt(order.getUpdatedAt());
+    }
+
+    @Override
+    public Long getId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * An order lifecycle event, written in the same transaction as the change it describes and
+ * delivered afterwards by OutboxDispatcher. publishedAt is set once every handler has had it.
+ */
+@Entity
+@Table(name = "outbox", indexes = {
+        // ✨ The dispatcher polls "published_at is null order by id"
+        @Index(name = "idx_outbox_published_id", columnList = "published_at, id")
+})
+@Getter @Setter
+@NoArgsConstructor                                 // ✨ Required by JPA
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = "payload")
+@Accessors(chain = true)
+public class OutboxEvent {
+
+    public static final int ID_BLOCK_SIZE = 100;
+
+    // ✨ Pooled ids (see Product): a bulk status change appends one event per order in one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "outbox_id")
+    @TableGenerator(name = "outbox_id", table = "id_blocks", pkColumnName = "entity", valueColumnName = "next_id",
+            pkColumnValue = "outbox", allocationSize = OutboxEvent.ID_BLOCK_SIZE)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private Type type;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    /** JSON */
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    public enum Type {
+        ORDER_PLACED,
+        ORDER_STATUS_CHANGED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+
+    public static OutboxEvent create(Type type, Long aggregateId, String payload) {
+        return new OutboxEvent()
+                .setType(type)
+                .setAggregateId(aggregateId)
+                .setPayload(payload);
+    }
+}
@@ -9,23 +9,38 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import com.example.ecommerce.event.ProductEntityListener;
+import com.example.ecommerce.event.ProductSnapshot;
 import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Product entity using Static Factory Methods + Lombok annotations
  * Static factory methods provide descriptive ways to create different types of products
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // ✨ Keyset pagination: equality columns first, then the sort key with id as tie-breaker
+        @Index(name = "idx_products_category_active_id", columnList = "category_id, active, id"),
+        @Index(name = "idx_products_active_price_id", columnList = "active, price, id")
+})
+@EntityListeners(ProductEntityListener.class)       // ✨ Publishes ProductChangedEvent for caches/read models
 @Getter @Setter                                    // ✨ Lombok: Generate getters/setters
 @NoArgsConstructor                                 // ✨ Required by JPA
 @EqualsAndHashCode(onlyExplicitlyIncluded = true) // ✨ Only use ID for equals/hashCode (JPA best practice)
-@ToString(exclude = {"cartItems", "orderItems"})  // ✨ Exclude lazy collections
+@ToString(exclude = {"cartItems", "orderItems", "loadedSnapshot"})  // ✨ Exclude lazy collections
 @Accessors(chain = true)                          // ✨ Enable method chaining
 public class Product {
 
+    public static final int ID_BLOCK_SIZE = 500;
+
+    // ✨ Pooled ids: Hibernate reserves ID_BLOCK_SIZE ids per round trip to id_blocks, and unlike
+    // IDENTITY it knows the id before the INSERT, so inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = "id_blocks", pkColumnName = "entity", valueColumnName = "next_id",
+            pkColumnValue = "products", allocationSize = Product.ID_BLOCK_SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -59,17 +74,28 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // ✨ Optimistic locking: checkout decrements stock without row locks and retries on a version clash;
+    // the StockReservationEngine flush bumps it too, so neither write silently overwrites the other
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     @NotNull(message = "Category is required")
     private Category category;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<com.ecommerce.model.CartItem> cartItems;
+    private List<CartItem> cartItems;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
 
+    /** State as loaded or last flushed; lets change events say what changed */
+    @Transient
+    private ProductSnapshot loadedSnapshot;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -81,6 +107,11 @@ public class Product {
         updatedAt = LocalDateTime.now();
     }
 
+    @PostLoad
+    protected void onLoad() {
+        loadedSnapshot = ProductSnapshot.of(this);
+    }
+
     // ✨ Static Factory Methods - ONLY methods actually used in the codebase
 
     /** Create a basic product - USED in ProductService */
@@ -117,6 +148,7 @@ public class Product {
         return this.setStockQuantity(this.stockQuantity + quantity);
     }
 
+    // ✨ Read-modify-write on the entity, guarded by @Version: checkout holds the units in StockReservationEngine first
     public Product reduceStock(int quantity) {
         if (quantity <= 0) {
             throw new BadRequestException("Quantity must be greater than 0");
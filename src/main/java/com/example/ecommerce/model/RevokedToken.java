@@ -0,0 +1,59 @@
+package com.example.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * Denylist entry for a JWT revoked before its expiry (e.g. on logout).
+ * Rows are only needed until the token would have expired anyway and are pruned after that.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+})
+@Getter @Setter
+@NoArgsConstructor                                 // ✨ Required by JPA
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+@Accessors(chain = true)
+public class RevokedToken {
+
+    /** The token's "jti" claim */
+    @Id
+    @Column(name = "token_id", length = 36)
+    @EqualsAndHashCode.Include
+    private String tokenId;
+
+    @Column(name = "username")
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (revokedAt == null) {
+            revokedAt = Instant.now();
+        }
+    }
+
+    /** Create denylist entry - USED in TokenRevocationService */
+    public static RevokedToken create(String tokenId, String username, Instant expiresAt) {
+        return new RevokedToken()
+                .setTokenId(tokenId)
+                .setUsername(username)
+                .setExpiresAt(expiresAt)
+                .setRevokedAt(Instant.now());
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ecommerce.model;
 
+import com.example.ecommerce.security.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -16,13 +17,14 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheInvalidationListener.class)  // Evict cached principals on every write
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)  // Only use ID for equals/hashCode (JPA best practice)
-@ToString(exclude = {"password", "cart", "orders"})  // Exclude sensitive data and lazy collections
+@ToString(exclude = {"password", "loadedSecurityState", "cart", "orders"})  // Exclude sensitive data and lazy collections
 @Accessors(chain = true)  // Enable method chaining: user.setName("John").setEmail("john@email.com")
 public class User implements UserDetails {
     @Id
@@ -58,6 +60,15 @@ public class User implements UserDetails {
 
     private boolean enabled = true;
 
+    /** Bumped whenever role, enabled or password changes; tokens carrying an older value are rejected */
+    @Column(name = "security_version", nullable = false)
+    private long securityVersion;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String loadedSecurityState;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -80,9 +91,22 @@ public class User implements UserDetails {
         updatedAt = LocalDateTime.now();
     }
 
+    @PostLoad
+    protected void onLoad() {
+        loadedSecurityState = securityState();
+    }
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        if (loadedSecurityState != null && !loadedSecurityState.equals(securityState())) {
+            securityVersion++;
+        }
+        loadedSecurityState = securityState();
+    }
+
+    private String securityState() {
+        return role + "|" + enabled + "|" + password;
     }
 
     // UserDetails implementation
@@ -0,0 +1,74 @@
+package com.example.ecommerce.order;
+
+import com.example.ecommerce.exception.InvalidStateTransitionException;
+import com.example.ecommerce.model.Order.OrderStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The allowed order status transitions, as a table built once at class load.
+ *
+ * Each status maps to the EnumSet of statuses it may move to, so a check is one array index
+ * and one bit test. The reverse table (sources) serves bulk updates that guard on the current
+ * status with "where status in (...)".
+ *
+ * PENDING -> CONFIRMED -> PROCESSING -> SHIPPED -> DELIVERED -> REFUNDED; PENDING and CONFIRMED
+ * orders can also be CANCELLED. CANCELLED and REFUNDED are final.
+ */
+public final class OrderStateMachine {
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TARGETS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus status : OrderStatus.values()) {
+            TARGETS.put(status, EnumSet.noneOf(OrderStatus.class));
+            SOURCES.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        allow(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+        allow(OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.CANCELLED);
+        allow(OrderStatus.PROCESSING, OrderStatus.SHIPPED);
+        allow(OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+        allow(OrderStatus.DELIVERED, OrderStatus.REFUNDED);
+        TARGETS.replaceAll((status, targets) -> Collections.unmodifiableSet(targets));
+        SOURCES.replaceAll((status, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    private OrderStateMachine() {}
+
+    public static boolean canTransition(OrderStatus from, OrderStatus to) {
+        return TARGETS.get(from).contains(to);
+    }
+
+    /** @throws InvalidStateTransitionException if from may not move to to */
+    public static void requireTransition(OrderStatus from, OrderStatus to) {
+        if (!canTransition(from, to)) {
+            throw new InvalidStateTransitionException("Order", from.name(), "transition to " + to.name());
+        }
+    }
+
+    /** Statuses an order in from may move to */
+    public static Set<OrderStatus> targets(OrderStatus from) {
+        return TARGETS.get(from);
+    }
+
+    /** Statuses an order may be in to move to to */
+    public static Set<OrderStatus> sources(OrderStatus to) {
+        return SOURCES.get(to);
+    }
+
+    public static boolean isFinal(OrderStatus status) {
+        return TARGETS.get(status).isEmpty();
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... targets) {
+        for (OrderStatus to : targets) {
+            TARGETS.get(from).add(to);
+            SOURCES.get(to).add(from);
+        }
+    }
+}
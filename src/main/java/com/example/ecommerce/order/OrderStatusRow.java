@@ -0,0 +1,6 @@
+package com.example.ecommerce.order;
+
+import com.example.ecommerce.model.Order.OrderStatus;
+
+/** Id and status of an order, loaded by projection for bulk status transitions */
+public record OrderStatusRow(Long id, OrderStatus status) {}
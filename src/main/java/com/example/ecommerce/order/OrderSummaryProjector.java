@@ -0,0 +1,90 @@
+package com.example.ecommerce.order;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderSummary;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.OrderSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Write side of the order_summaries read model.
+ *
+ * Callers invoke it inside the transaction that writes the orders, so a summary commits or
+ * rolls back with its order and the list never shows an order that does not exist. Orders
+ * placed before the table existed are summarized by a keyset backfill at startup.
+ */
+@Slf4j
+@Component
+public class OrderSummaryProjector {
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.orderSummaries.backfillOnStartup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${app.orderSummaries.backfillBatchSize:500}")
+    private int backfillBatchSize;
+
+    /** Summarize a new order (saved, items and products loaded) */
+    public void orderPlaced(Order order) {
+        orderSummaryRepository.save(OrderSummary.of(order));
+    }
+
+    public void statusChanged(Collection<Long> orderIds, Order.OrderStatus status, LocalDateTime now) {
+        if (!orderIds.isEmpty()) {
+            orderSummaryRepository.updateStatus(orderIds, status, now);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    /** Summarize every order that has no summary yet, one transaction per batch */
+    public long backfill() {
+        long start = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long afterId = 0;
+        long count = 0;
+        List<Long> ids;
+        do {
+            ids = orderRepository.findIdsWithoutSummaryAfter(afterId, Limit.of(backfillBatchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> batch = ids;
+            transactionTemplate.executeWithoutResult(status -> orderSummaryRepository.saveAll(
+                    orderRepository.findWithItemsByIdIn(batch).stream().map(OrderSummary::of).toList()));
+            afterId = ids.get(ids.size() - 1);
+            count += ids.size();
+        } while (ids.size() == backfillBatchSize);
+        if (count > 0) {
+            log.info("Backfilled {} order summaries in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.ecommerce.order;
+
+/** Units of one product summed over a set of order items */
+public record ProductQuantityRow(Long productId, Long quantity) {}
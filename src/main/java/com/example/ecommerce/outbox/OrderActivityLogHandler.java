@@ -0,0 +1,35 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes every order event to the "order-activity" log, one line each, for the analytics
+ * pipeline that tails it. Replayed events repeat their outbox id, which is the dedup key.
+ */
+@Slf4j(topic = "order-activity")
+@Component
+@ConditionalOnProperty(name = "app.outbox.activityLog.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderActivityLogHandler implements OutboxHandler {
+
+    @Override
+    public String name() {
+        return "order-activity-log";
+    }
+
+    @Override
+    public boolean supports(OutboxEvent.Type type) {
+        return true;
+    }
+
+    @Override
+    public void handle(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            log.info("{} {} order={} {}", message.id(), message.type(), message.aggregateId(), message.payload());
+        }
+    }
+}
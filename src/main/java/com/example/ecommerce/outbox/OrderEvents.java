@@ -0,0 +1,32 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Order.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** JSON payloads of the order outbox events */
+public final class OrderEvents {
+
+    private OrderEvents() {}
+
+    /** ORDER_PLACED */
+    public record OrderPlaced(Long orderId, Long userId, BigDecimal totalAmount, int totalItems,
+                              LocalDateTime placedAt, List<Line> lines) {
+
+        public static OrderPlaced of(Order order) {
+            return new OrderPlaced(order.getId(), order.getUser().getId(), order.getTotalAmount(),
+                    order.getTotalItems(), order.getCreatedAt(),
+                    order.getOrderItems().stream()
+                            .map(item -> new Line(item.getProduct().getId(), item.getQuantity(), item.getUnitPrice()))
+                            .toList());
+        }
+    }
+
+    public record Line(Long productId, int quantity, BigDecimal unitPrice) {}
+
+    /** ORDER_STATUS_CHANGED */
+    public record StatusChanged(Long orderId, OrderStatus from, OrderStatus to, LocalDateTime changedAt) {}
+}
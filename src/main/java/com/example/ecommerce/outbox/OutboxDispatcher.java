@@ -0,0 +1,308 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+import com.example.ecommerce.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the outbox table to the registered OutboxHandlers.
+ *
+ * A single poller (the scheduled poll, every app.outbox.pollIntervalMs) is the only writer of
+ * a RingBuffer of app.outbox.ringSize events. Each handler has its own consumer thread and
+ * sequence, reads whatever has been published in batches of up to app.outbox.batchSize, and
+ * so never waits for the other handlers. The poller also marks events published, but only
+ * those every handler is past; an event is therefore delivered at least once even across a
+ * crash. A slow handler holds the ring full, and the poller simply fetches nothing until it
+ * catches up: that is the backpressure, and its lag shows in stats().
+ *
+ * Each poll reads the ids of unpublished rows ("published_at is null order by id", served by
+ * the index alone) and loads full rows only for ids not already in the ring. It does not
+ * use "id > last fetched": pooled ids are handed out before the transactions commit, so a
+ * lower id can become visible after a higher one and must not be skipped. Delivery is
+ * therefore in id order except for such late commits.
+ *
+ * A batch that throws is retried with exponential backoff capped at 10 s, for as long as it
+ * takes: that handler stops advancing, so nothing it has not handled is marked published and
+ * a downstream outage only delays events. Past app.outbox.alertAfterAttempts each failure is
+ * logged as an error, and the handler's lag keeps growing in stats(). A handler must
+ * therefore deal with a permanently bad event itself (log and return) rather than throw.
+ * Run the dispatcher (app.outbox.dispatcherEnabled) on one instance only.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired(required = false)
+    private List<OutboxHandler> handlers = new ArrayList<>();
+
+    @Value("${app.outbox.dispatcherEnabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batchSize:256}")
+    private int batchSize;
+
+    @Value("${app.outbox.alertAfterAttempts:5}")
+    private int alertAfterAttempts;
+
+    @Value("${app.outbox.retryBackoffMs:100}")
+    private long retryBackoffMillis;
+
+    @Value("${app.outbox.retentionMs:604800000}")
+    private long retentionMillis;
+
+    private final RingBuffer<OutboxMessage> ring;
+    private final List<Consumer> consumers = new ArrayList<>();
+    // Guards start, stop and poll; held across the poll's queries, so not a monitor
+    private final ReentrantLock lock = new ReentrantLock();
+    // Under lock only: ids published to the ring and not yet marked, and the last marked sequence
+    private final Set<Long> inRing = new HashSet<>();
+    private volatile long markedSequence = -1;
+    private volatile boolean running;
+
+    private final AtomicLong fetched = new AtomicLong();
+    private final AtomicLong marked = new AtomicLong();
+
+    public OutboxDispatcher(@Value("${app.outbox.ringSize:4096}") int ringSize) {
+        this.ring = new RingBuffer<>(ringSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lock.lock();
+        try {
+            if (!enabled || running) {
+                return;
+            }
+            running = true;
+            for (OutboxHandler handler : handlers) {
+                Consumer consumer = new Consumer(handler);
+                consumers.add(consumer);
+                consumer.thread.start();
+            }
+            log.info("Outbox dispatcher started with {} handlers", consumers.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            for (Consumer consumer : consumers) {
+                LockSupport.unpark(consumer.thread);
+            }
+            for (Consumer consumer : consumers) {
+                try {
+                    consumer.thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            // Whatever the handlers finished need not be delivered again after the restart
+            markConsumed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Mark what every handler is past, then refill the ring from the outbox table */
+    @Scheduled(fixedDelayString = "${app.outbox.pollIntervalMs:100}")
+    public void poll() {
+        if (!running || !lock.tryLock()) {
+            return;
+        }
+        try {
+            if (running) {
+                refill();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.pruneCron:0 15 4 * * *}")
+    public void prunePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(Instant.now().minusMillis(retentionMillis));
+        log.info("Pruned {} published outbox events", deleted);
+    }
+
+    /** Per handler: sequence, events behind the ring, age of its oldest pending event, counters */
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        long cursor = ring.cursor();
+        stats.put("dispatcher", Map.of(
+                "ringCursor", cursor,
+                "ringCapacity", (long) ring.capacity(),
+                "markedSequence", markedSequence,
+                "fetched", fetched.get(),
+                "markedPublished", marked.get()));
+        long now = System.currentTimeMillis();
+        for (Consumer consumer : consumers) {
+            long sequence = consumer.sequence.get();
+            OutboxMessage oldestPending = sequence < cursor ? ring.get(sequence + 1) : null;
+            stats.put(consumer.handler.name(), Map.of(
+                    "sequence", sequence,
+                    "lagEvents", cursor - sequence,
+                    "lagMillis", oldestPending != null ? Math.max(0, now - oldestPending.createdAt().toEpochMilli()) : 0L,
+                    "delivered", consumer.delivered.get(),
+                    "batches", consumer.batches.get(),
+                    "failedAttempts", consumer.failedAttempts.get(),
+                    "failingSinceAttempts", (long) consumer.failingAttempts));
+        }
+        return stats;
+    }
+
+    private void refill() {
+        markConsumed();
+        int free = Math.min(batchSize, ring.remainingCapacity(markedSequence));
+        if (free <= 0) {
+            return;
+        }
+        List<Long> newIds = new ArrayList<>(free);
+        for (Long id : outboxEventRepository.findUnpublishedIds(Limit.of(inRing.size() + free))) {
+            if (!inRing.contains(id)) {
+                newIds.add(id);
+            }
+        }
+        if (newIds.isEmpty()) {
+            return;
+        }
+        int published = 0;
+        for (OutboxEvent event : outboxEventRepository.findByIdInOrderById(newIds)) {
+            if (!ring.tryPublish(OutboxMessage.of(event), markedSequence)) {
+                break;
+            }
+            inRing.add(event.getId());
+            published++;
+        }
+        if (published > 0) {
+            fetched.addAndGet(published);
+            for (Consumer consumer : consumers) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /** Mark the events every consumer has finished with as published */
+    private void markConsumed() {
+        long gating = ring.cursor();
+        for (Consumer consumer : consumers) {
+            gating = Math.min(gating, consumer.sequence.get());
+        }
+        if (gating <= markedSequence) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>((int) (gating - markedSequence));
+        for (long sequence = markedSequence + 1; sequence <= gating; sequence++) {
+            ids.add(ring.get(sequence).id());
+        }
+        Instant now = Instant.now();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            outboxEventRepository.markPublished(ids.subList(from, Math.min(ids.size(), from + batchSize)), now);
+        }
+        ids.forEach(inRing::remove);
+        markedSequence = gating;
+        marked.addAndGet(ids.size());
+    }
+
+    private final class Consumer implements Runnable {
+        final OutboxHandler handler;
+        final Thread thread;
+        /** Highest sequence this handler is done with */
+        final AtomicLong sequence = new AtomicLong(ring.cursor());
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong batches = new AtomicLong();
+        final AtomicLong failedAttempts = new AtomicLong();
+        /** Attempts so far at the batch being retried, 0 while deliveries succeed */
+        volatile int failingAttempts;
+
+        Consumer(OutboxHandler handler) {
+            this.handler = handler;
+            this.thread = new Thread(this, "outbox-" + handler.name());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                long next = sequence.get() + 1;
+                long available = ring.cursor();
+                if (available < next) {
+                    LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                    continue;
+                }
+                long end = Math.min(available, next + batchSize - 1);
+                List<OutboxMessage> batch = new ArrayList<>((int) (end - next + 1));
+                for (long s = next; s <= end; s++) {
+                    OutboxMessage message = ring.get(s);
+                    if (handler.supports(message.type())) {
+                        batch.add(message);
+                    }
+                }
+                if (!batch.isEmpty() && !deliver(batch)) {
+                    return;
+                }
+                sequence.set(end);
+            }
+        }
+
+        /** Retries until the batch goes through; false if the dispatcher stopped first */
+        private boolean deliver(List<OutboxMessage> batch) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    handler.handle(batch);
+                    delivered.addAndGet(batch.size());
+                    batches.incrementAndGet();
+                    failingAttempts = 0;
+                    return true;
+                } catch (Exception e) {
+                    failedAttempts.incrementAndGet();
+                    failingAttempts = attempt;
+                    long backoff = Math.min(MAX_BACKOFF_MILLIS, retryBackoffMillis << Math.min(attempt - 1, 20));
+                    if (attempt >= alertAfterAttempts) {
+                        log.error("Outbox handler {} is stuck on events {}..{} ({} attempts), retrying in {} ms",
+                                handler.name(), batch.get(0).id(), batch.get(batch.size() - 1).id(), attempt, backoff, e);
+                    } else {
+                        log.warn("Outbox handler {} failed (attempt {}), retrying in {} ms: {}", handler.name(),
+                                attempt, backoff, e.getMessage());
+                    }
+                    LockSupport.parkNanos(Duration.ofMillis(backoff).toNanos());
+                    if (!running) {
+                        return false;
+                    }
+                }
+            }
+        }
+    }
+}
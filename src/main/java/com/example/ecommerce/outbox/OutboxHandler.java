@@ -0,0 +1,25 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Receives outbox events after their transaction committed. Any Spring bean implementing this
+ * is registered with OutboxDispatcher and gets its own consumer thread.
+ *
+ * Delivery is at-least-once: a batch that throws is retried until it goes through, and events
+ * handled just before a crash are delivered again after the restart, so handling must be
+ * idempotent (e.g. keyed by OutboxMessage.id). An event that can never be handled should be
+ * logged and passed over, not thrown, or it holds this handler back for good.
+ */
+public interface OutboxHandler {
+
+    /** Stable name used for the consumer thread and in lag metrics */
+    String name();
+
+    boolean supports(OutboxEvent.Type type);
+
+    /** Handle events in outbox order; throw to have the whole batch retried */
+    void handle(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,14 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+
+import java.time.Instant;
+
+/** An outbox row as handed to handlers, detached from the persistence context */
+public record OutboxMessage(long id, OutboxEvent.Type type, long aggregateId, String payload, Instant createdAt) {
+
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getType(), event.getAggregateId(), event.getPayload(),
+                event.getCreatedAt());
+    }
+}
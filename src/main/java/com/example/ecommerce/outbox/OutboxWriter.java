@@ -0,0 +1,57 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.OutboxEvent;
+import com.example.ecommerce.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends order events to the outbox. Only inside the transaction that makes the change, so
+ * an event commits or rolls back with it; nothing is delivered until OutboxDispatcher sees
+ * the committed rows.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** A new order (saved, so its id is assigned) */
+    public void orderPlaced(Order order) {
+        outboxEventRepository.save(OutboxEvent.create(OutboxEvent.Type.ORDER_PLACED, order.getId(),
+                toJson(OrderEvents.OrderPlaced.of(order))));
+    }
+
+    /** One event per order; written as a single JDBC batch with the rest of the flush */
+    public void statusChanged(Collection<Long> orderIds, OrderStatus from, OrderStatus to, LocalDateTime now) {
+        List<OutboxEvent> events = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            events.add(OutboxEvent.create(OutboxEvent.Type.ORDER_STATUS_CHANGED, orderId,
+                    toJson(new OrderEvents.StatusChanged(orderId, from, to, now))));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload " + payload, e);
+        }
+    }
+}
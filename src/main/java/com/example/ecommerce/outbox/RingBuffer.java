@@ -0,0 +1,64 @@
+package com.example.ecommerce.outbox;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size ring of slots addressed by an ever-increasing sequence number, for one writer
+ * and any number of readers that each track their own position.
+ *
+ * The writer fills the slot of the next sequence and then advances the published cursor
+ * (a volatile write), so a reader that sees the cursor at n also sees every slot up to n.
+ * Nothing is ever removed: the writer passes the lowest sequence every reader is done with
+ * (gatingSequence), and tryPublish refuses to overwrite a slot beyond it. That refusal is the
+ * backpressure - the writer waits instead of readers losing entries.
+ */
+public final class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a positive power of two");
+        }
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Append an item unless that would overwrite a slot some reader still needs. Writer only.
+     *
+     * @param gatingSequence highest sequence every reader is finished with (-1 for none)
+     * @return false if the ring is full
+     */
+    public boolean tryPublish(T item, long gatingSequence) {
+        long next = cursor.get() + 1;
+        if (next - gatingSequence > slots.length) {
+            return false;
+        }
+        slots[(int) next & mask] = item;
+        cursor.set(next);
+        return true;
+    }
+
+    /** Slots the writer can still fill before reaching gatingSequence */
+    public int remainingCapacity(long gatingSequence) {
+        return (int) (slots.length - (cursor.get() - gatingSequence));
+    }
+
+    /** Highest published sequence, -1 before the first publish */
+    public long cursor() {
+        return cursor.get();
+    }
+
+    /** The item at a published sequence that has not been overwritten yet */
+    @SuppressWarnings("unchecked")
+    public T get(long sequence) {
+        return (T) slots[(int) sequence & mask];
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
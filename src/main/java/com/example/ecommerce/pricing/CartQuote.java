@@ -0,0 +1,29 @@
+package com.example.ecommerce.pricing;
+
+import java.math.BigDecimal;
+
+/**
+ * Cart total from ProductPriceTable. unitPricesMinorUnits holds each line's unit price in the
+ * order the lines were passed, NO_PRICE for products the table does not know.
+ * unavailableProductIds lists the lines that cannot be bought as they stand: unknown or
+ * inactive products, or quantity above stock. Unknown products contribute nothing to the total.
+ */
+public record CartQuote(long totalMinorUnits, int totalItems, long[] unitPricesMinorUnits,
+                        long[] unavailableProductIds) {
+
+    static final long[] NONE = new long[0];
+
+    public BigDecimal total() {
+        return ProductPriceTable.fromMinorUnits(totalMinorUnits);
+    }
+
+    public boolean isAvailable() {
+        return unavailableProductIds.length == 0;
+    }
+
+    /** Unit price of the line at the given index, or null if the table does not know its product */
+    public BigDecimal unitPrice(int line) {
+        long price = unitPricesMinorUnits[line];
+        return price == ProductPriceTable.NO_PRICE ? null : ProductPriceTable.fromMinorUnits(price);
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.ecommerce.pricing;
+
+import com.example.ecommerce.event.ProductChangedEvent;
+import com.example.ecommerce.event.StockFlushedEvent;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductFacetRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Price and stock of every product, keyed by primitive product id, for pricing carts without
+ * loading Product entities.
+ *
+ * Open addressing with linear probing over parallel arrays (ids, prices in minor units, stock,
+ * active flag): a lookup touches a few array slots and allocates nothing. Readers use
+ * StampedLock optimistic reads and only fall back to the read lock if a writer got in between.
+ * Id 0 marks an empty slot (product ids start at 1); removal uses backward shift, so there
+ * are no tombstones.
+ *
+ * Updated from committed ProductChangedEvents and rebuilt from the database at startup, like
+ * the search and facet indexes.
+ */
+@Slf4j
+@Component
+public class ProductPriceTable {
+
+    /** Product.price is DECIMAL(10,2), so minor units are hundredths */
+    public static final int MINOR_UNIT_SCALE = 2;
+    /** Returned by priceMinorUnits for unknown products */
+    public static final long NO_PRICE = -1;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final int rebuildBatchSize;
+
+    private final StampedLock lock = new StampedLock();
+    // Guarded by lock; arrays are replaced wholesale on resize and rebuild
+    private Table table = new Table(MIN_CAPACITY);
+    // Non-null while a rebuild is running: every write since it started, replayed onto the
+    // rebuilt table before the swap; guarded by the write lock
+    private List<UnaryOperator<Table>> pendingDuringRebuild;
+
+    public ProductPriceTable(@Value("${app.priceTable.rebuildBatchSize:20000}") int rebuildBatchSize) {
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /** Price in minor units, or NO_PRICE if the product is unknown */
+    public long priceMinorUnits(long productId) {
+        long stamp = lock.tryOptimisticRead();
+        long price = table.price(productId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                price = table.price(productId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return price;
+    }
+
+    /** Units that can be sold: 0 for unknown and inactive products */
+    public int availableStock(long productId) {
+        long stamp = lock.tryOptimisticRead();
+        int stock = table.available(productId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                stock = table.available(productId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return stock;
+    }
+
+    /**
+     * Total and availability of a cart in one consistent read. productIds and quantities are
+     * parallel arrays, one entry per cart line.
+     */
+    public CartQuote quote(long[] productIds, int[] quantities) {
+        if (productIds.length != quantities.length) {
+            throw new IllegalArgumentException("productIds and quantities differ in length");
+        }
+        long stamp = lock.tryOptimisticRead();
+        CartQuote quote = table.quote(productIds, quantities);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                quote = table.quote(productIds, quantities);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return quote;
+    }
+
+    public void apply(ProductFacetRow product) {
+        long stamp = lock.writeLock();
+        try {
+            table = put(table, product);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(target -> put(target, product));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long productId) {
+        apply(ProductFacetRow.removed(productId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.after() == null) {
+            remove(event.productId());
+        } else if (event.before() == null || event.priceChanged() || event.stockChanged() || event.activeChanged()) {
+            apply(ProductFacetRow.of(event.after()));
+        }
+    }
+
+    /** Stock written behind by StockReservationEngine; a product not in the table is skipped */
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            long[] productIds = event.productIds();
+            int[] stockQuantities = event.stockQuantities();
+            for (int i = 0; i < productIds.length; i++) {
+                table.updateStock(productIds[i], stockQuantities[i]);
+            }
+            if (pendingDuringRebuild != null) {
+                // The rebuild may have read these rows before the flush committed
+                pendingDuringRebuild.add(target -> {
+                    for (int i = 0; i < productIds.length; i++) {
+                        target.updateStock(productIds[i], stockQuantities[i]);
+                    }
+                    return target;
+                });
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /** Rebuild from the database; lookups keep using the current table until the swap */
+    public void rebuild() {
+        long start = System.nanoTime();
+        long stamp = lock.writeLock();
+        try {
+            if (pendingDuringRebuild != null) {
+                log.warn("Price table rebuild already running");
+                return;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        Table rebuilt = new Table(MIN_CAPACITY);
+        try {
+            long afterId = 0;
+            List<ProductFacetRow> batch;
+            do {
+                batch = productRepository.findFacetRowsAfter(afterId, Limit.of(rebuildBatchSize));
+                for (ProductFacetRow row : batch) {
+                    rebuilt = put(rebuilt, row);
+                    afterId = row.id();
+                }
+            } while (batch.size() == rebuildBatchSize);
+        } catch (RuntimeException e) {
+            stamp = lock.writeLock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            throw e;
+        }
+
+        stamp = lock.writeLock();
+        try {
+            for (UnaryOperator<Table> write : pendingDuringRebuild) {
+                rebuilt = write.apply(rebuilt);
+            }
+            pendingDuringRebuild = null;
+            table = rebuilt;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("Price table rebuilt: {} products in {} ms",
+                rebuilt.size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Map<String, Long> stats() {
+        long stamp = lock.readLock();
+        try {
+            return Map.of(
+                    "products", (long) table.size,
+                    "capacity", (long) table.ids.length,
+                    "sizeInBytes", table.sizeInBytes());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public static long toMinorUnits(BigDecimal price) {
+        return price.setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+    }
+
+    /** Insert, update or (for removed rows) delete; returns the table to use afterwards */
+    private static Table put(Table target, ProductFacetRow row) {
+        if (row.isRemoved() || row.price() == null) {
+            target.delete(row.id());
+            return target;
+        }
+        Table result = target;
+        if ((target.size + 1) * 2 > target.ids.length) {
+            result = target.resized(target.ids.length * 2);
+        }
+        result.upsert(row.id(), toMinorUnits(row.price()),
+                row.stockQuantity() != null ? row.stockQuantity() : 0, row.active());
+        return result;
+    }
+
+    /**
+     * Parallel arrays at load factor <= 0.5. Not thread-safe: writes happen under the write lock
+     * and optimistic readers validate afterwards, so a reader may see a torn state but never
+     * acts on it. Probe loops are bounded by the capacity so a torn read cannot spin forever.
+     */
+    private static final class Table {
+        final long[] ids;
+        final long[] prices;
+        final int[] stock;
+        final boolean[] active;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            ids = new long[capacity];
+            prices = new long[capacity];
+            stock = new int[capacity];
+            active = new boolean[capacity];
+            mask = capacity - 1;
+        }
+
+        long price(long id) {
+            int slot = find(id);
+            return slot >= 0 ? prices[slot] : NO_PRICE;
+        }
+
+        int available(long id) {
+            int slot = find(id);
+            return slot >= 0 && active[slot] ? Math.max(stock[slot], 0) : 0;
+        }
+
+        CartQuote quote(long[] productIds, int[] quantities) {
+            long total = 0;
+            int items = 0;
+            long[] unitPrices = new long[productIds.length];
+            int unavailableLines = 0;
+            long[] unavailable = null;
+            for (int i = 0; i < productIds.length; i++) {
+                int slot = find(productIds[i]);
+                int quantity = quantities[i];
+                unitPrices[i] = slot >= 0 ? prices[slot] : NO_PRICE;
+                if (slot >= 0) {
+                    total += prices[slot] * quantity;
+                }
+                items += quantity;
+                if (slot < 0 || !active[slot] || stock[slot] < quantity) {
+                    if (unavailable == null) {
+                        unavailable = new long[productIds.length - i];
+                    }
+                    unavailable[unavailableLines++] = productIds[i];
+                }
+            }
+            return new CartQuote(total, items, unitPrices, unavailable == null ? CartQuote.NONE
+                    : Arrays.copyOf(unavailable, unavailableLines));
+        }
+
+        int find(long id) {
+            if (id <= 0) {
+                return -1;
+            }
+            for (int slot = hash(id) & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                long current = ids[slot];
+                if (current == id) {
+                    return slot;
+                }
+                if (current == 0) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        void upsert(long id, long price, int stockQuantity, boolean isActive) {
+            int slot = hash(id) & mask;
+            while (ids[slot] != 0 && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (ids[slot] == 0) {
+                size++;
+            }
+            prices[slot] = price;
+            stock[slot] = stockQuantity;
+            active[slot] = isActive;
+            ids[slot] = id;
+        }
+
+        void updateStock(long id, int stockQuantity) {
+            int slot = find(id);
+            if (slot >= 0) {
+                stock[slot] = stockQuantity;
+            }
+        }
+
+        void delete(long id) {
+            int slot = find(id);
+            if (slot < 0) {
+                return;
+            }
+            // Backward shift: pull later entries of the probe run into the gap
+            int gap = slot;
+            for (int next = (gap + 1) & mask; ids[next] != 0; next = (next + 1) & mask) {
+                int home = hash(ids[next]) & mask;
+                // Move the entry unless its home lies cyclically in (gap, next]
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    ids[gap] = ids[next];
+                    prices[gap] = prices[next];
+                    stock[gap] = stock[next];
+                    active[gap] = active[next];
+                    gap = next;
+                }
+            }
+            ids[gap] = 0;
+            size--;
+        }
+
+        Table resized(int capacity) {
+            Table larger = new Table(capacity);
+            for (int slot = 0; slot < ids.length; slot++) {
+                if (ids[slot] != 0) {
+                    larger.upsert(ids[slot], prices[slot], stock[slot], active[slot]);
+                }
+            }
+            return larger;
+        }
+
+        long sizeInBytes() {
+            return (long) ids.length * (Long.BYTES + Long.BYTES + Integer.BYTES + 1);
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
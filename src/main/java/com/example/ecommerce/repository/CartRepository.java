@@ -0,0 +1,47 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.dto.cart.CartSummaryResponse;
+import com.example.ecommerce.model.Cart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CartRepository extends JpaRepository<Cart, Long> {
+
+    @Query("select distinct c from Cart c left join fetch c.items i left join fetch i.product where c.user.id = :userId")
+    Optional<Cart> findWithItemsByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.example.ecommerce.dto.cart.CartSummaryResponse(c.id, c.totalItems, c.subtotal, c.updatedAt) " +
+            "from Cart c where c.user.id = :userId")
+    Optional<CartSummaryResponse> findSummaryByUserId(@Param("userId") Long userId);
+
+    // Re-derive the running totals from the lines at current prices; bumping version makes a cart
+    // transaction that read the old totals fail at commit instead of writing them back
+
+    @Modifying
+    @Query(value = "update carts c set " +
+            "subtotal = (select coalesce(sum(ci.quantity * p.price), 0) from cart_items ci " +
+            "join products p on p.id = ci.product_id where ci.cart_id = c.id), " +
+            "total_items = (select coalesce(sum(ci.quantity), 0) from cart_items ci where ci.cart_id = c.id), " +
+            "version = version + 1 " +
+            "where c.id in (select ci.cart_id from cart_items ci where ci.product_id = :productId)", nativeQuery = true)
+    int recomputeTotalsForProduct(@Param("productId") Long productId);
+
+    /** Only carts whose stored totals are off are written, so correct carts keep their version */
+    @Modifying
+    @Query(value = "update carts c set " +
+            "subtotal = (select coalesce(sum(ci.quantity * p.price), 0) from cart_items ci " +
+            "join products p on p.id = ci.product_id where ci.cart_id = c.id), " +
+            "total_items = (select coalesce(sum(ci.quantity), 0) from cart_items ci where ci.cart_id = c.id), " +
+            "version = version + 1 " +
+            "where c.subtotal <> (select coalesce(sum(ci.quantity * p.price), 0) from cart_items ci " +
+            "join products p on p.id = ci.product_id where ci.cart_id = c.id) " +
+            "or c.total_items <> (select coalesce(sum(ci.quantity), 0) from cart_items ci where ci.cart_id = c.id)",
+            nativeQuery = true)
+    int recomputeAllTotals();
+}
@@ -0,0 +1,35 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    Optional<Category> findByName(String name);
+
+    List<Category> findAllByOrderByNameAsc();
+
+    @Modifying
+    @Query("update Category c set c.productCount = c.productCount + :total, " +
+            "c.activeProductCount = c.activeProductCount + :active, " +
+            "c.inStockProductCount = c.inStockProductCount + :inStock where c.id = :id")
+    int adjustProductCounts(@Param("id") Long id, @Param("total") int total,
+                            @Param("active") int active, @Param("inStock") int inStock);
+
+    /** Recompute every category's counters from the products table */
+    @Modifying
+    @Query(value = "update categories c set " +
+            "product_count = (select count(*) from products p where p.category_id = c.id), " +
+            "active_product_count = (select count(*) from products p where p.category_id = c.id and p.active = true), " +
+            "in_stock_product_count = (select count(*) from products p where p.category_id = c.id " +
+            "and p.active = true and p.stock_quantity > 0)", nativeQuery = true)
+    int recountProducts();
+}
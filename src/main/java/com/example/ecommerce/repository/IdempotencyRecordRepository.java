@@ -0,0 +1,47 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /** Claim a key; returns 0 if a row for it already exists */
+    @Modifying
+    @Transactional
+    @Query(value = "insert ignore into idempotency_records (record_key, fingerprint, created_at, expires_at) " +
+            "values (:key, :fingerprint, :now, :expiresAt)", nativeQuery = true)
+    int insertPending(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                      @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.statusCode = :statusCode, r.contentType = :contentType, " +
+            "r.body = :body, r.expiresAt = :expiresAt where r.recordKey = :key")
+    int complete(@Param("key") String key, @Param("statusCode") int statusCode, @Param("contentType") String contentType,
+                 @Param("body") byte[] body, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.recordKey = :key and r.statusCode is null")
+    int deletePending(@Param("key") String key);
+
+    /** Drop the key's row if it expired, or is a claim whose request died before finishing */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.recordKey = :key and " +
+            "(r.expiresAt <= :now or (r.statusCode is null and r.createdAt <= :staleBefore))")
+    int deleteIfStale(@Param("key") String key, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,45 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.order.OrderStatusRow;
+import com.example.ecommerce.order.ProductQuantityRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /** Row-lock the orders (in id order, so concurrent bulk updates cannot deadlock) and return the ids found */
+    @Query(value = "select id from orders where id in (:ids) order by id for update", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.ecommerce.order.OrderStatusRow(o.id, o.status) from Order o where o.id in :ids")
+    List<OrderStatusRow> findStatusRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Order o set o.status = :to, o.updatedAt = :now where o.id in :ids and o.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("from") Order.OrderStatus from,
+                         @Param("to") Order.OrderStatus to, @Param("now") LocalDateTime now);
+
+    @Query("select new com.example.ecommerce.order.ProductQuantityRow(oi.product.id, sum(oi.quantity)) " +
+            "from OrderItem oi where oi.order.id in :orderIds group by oi.product.id")
+    List<ProductQuantityRow> sumQuantitiesByProduct(@Param("orderIds") Collection<Long> orderIds);
+
+    // Order summary backfill
+
+    @Query("select o.id from Order o where o.id > :afterId " +
+            "and not exists (select 1 from OrderSummary s where s.orderId = o.id) order by o.id")
+    List<Long> findIdsWithoutSummaryAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select distinct o from Order o left join fetch o.orderItems i left join fetch i.product " +
+            "where o.id in :ids order by o.id, i.id")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+}
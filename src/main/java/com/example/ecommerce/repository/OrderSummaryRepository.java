@@ -0,0 +1,27 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    /** A user's orders with ids below beforeId, newest first; served by (user_id, order_id) */
+    @Query("select s from OrderSummary s where s.userId = :userId and s.orderId < :beforeId order by s.orderId desc")
+    List<OrderSummary> findByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") long beforeId, Limit limit);
+
+    @Modifying
+    @Query("update OrderSummary s set s.status = :status, s.updatedAt = :now where s.orderId in :orderIds")
+    int updateStatus(@Param("orderIds") Collection<Long> orderIds, @Param("status") Order.OrderStatus status,
+                     @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,33 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e.id from OutboxEvent e where e.publishedAt is null order by e.id")
+    List<Long> findUnpublishedIds(Limit limit);
+
+    List<OutboxEvent> findByIdInOrderById(Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update OutboxEvent e set e.publishedAt = :now where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,61 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.search.ProductFacetRow;
+import com.example.ecommerce.search.ProductText;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    @Query("select p from Product p join fetch p.category where p.id = :id")
+    Optional<Product> findWithCategoryById(@Param("id") Long id);
+
+    @Query(value = "select p from Product p join fetch p.category c where c.id = :categoryId and p.active = true",
+            countQuery = "select count(p) from Product p where p.category.id = :categoryId and p.active = true")
+    Page<Product> findActiveByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    // Keyset pagination: seek past the last row seen instead of OFFSET, so every page is an index
+    // range scan of `limit` rows. Served by idx_products_category_active_id / idx_products_active_price_id.
+    // The (price, id) seek is written as price >= :price plus a tie filter, rather than an OR of two
+    // ranges, so the optimizer always gets a single index range starting at the cursor's price.
+
+    @Query("select p from Product p join fetch p.category c where c.id = :categoryId and p.active = true " +
+            "and p.id > :afterId order by p.id")
+    List<Product> findActiveByCategoryIdAfter(@Param("categoryId") Long categoryId, @Param("afterId") long afterId,
+                                              Limit limit);
+
+    @Query("select new com.example.ecommerce.search.ProductText(p.id, p.name, p.description) from Product p " +
+            "where p.active = true and p.id > :afterId order by p.id")
+    List<ProductText> findActiveTextAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select new com.example.ecommerce.search.ProductFacetRow(p.id, p.category.id, p.price, p.stockQuantity, p.active) " +
+            "from Product p where p.id > :afterId order by p.id")
+    List<ProductFacetRow> findFacetRowsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select new com.example.ecommerce.search.ProductFacetRow(p.id, p.category.id, p.price, p.stockQuantity, p.active) " +
+            "from Product p where p.id in :ids")
+    List<ProductFacetRow> findFacetRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.stockQuantity from Product p where p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    @Query("select p from Product p join fetch p.category where p.active = true order by p.price, p.id")
+    List<Product> findActiveOrderByPrice(Limit limit);
+
+    @Query("select p from Product p join fetch p.category where p.active = true " +
+            "and p.price >= :price and (p.price > :price or p.id > :afterId) order by p.price, p.id")
+    List<Product> findActiveOrderByPriceAfter(@Param("price") BigDecimal price, @Param("afterId") long afterId,
+                                              Limit limit);
+}
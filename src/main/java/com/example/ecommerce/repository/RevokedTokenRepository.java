@@ -0,0 +1,23 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findAllByExpiresAtAfter(Instant now);
+
+    List<RevokedToken> findAllByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant now);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -2,6 +2,8 @@ package com.example.ecommerce.repository;
 
 import com.example.ecommerce.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
 
@@ -12,4 +14,7 @@ public interface UserRepository extends JpaRepository<User, Long>{
 
     Optional<User> getUserByUsername(String username);
 
+    @Query("select u.securityVersion from User u where u.id = :id")
+    Optional<Long> findSecurityVersionById(@Param("id") Long id);
+
 }
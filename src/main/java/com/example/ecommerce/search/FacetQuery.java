@@ -0,0 +1,10 @@
+package com.example.ecommerce.search;
+
+import java.util.Set;
+
+/**
+ * Facet selection: values within one facet are OR-ed, facets are AND-ed.
+ * Empty sets mean "no filter" for that facet.
+ */
+public record FacetQuery(Set<Long> categoryIds, Set<Integer> priceBuckets, boolean inStockOnly,
+                         long afterId, int size) {}
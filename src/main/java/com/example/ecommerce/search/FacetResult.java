@@ -0,0 +1,13 @@
+package com.example.ecommerce.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matching product ids (one page, in id order) plus counts for every facet value.
+ *
+ * Counts follow the usual disjunctive rule: a facet's counts apply every selection except
+ * that facet's own, so they show what selecting another value of it would add.
+ */
+public record FacetResult(int totalMatches, List<Long> productIds, Long nextAfterId,
+                          Map<Long, Integer> categoryCounts, int[] priceBucketCounts, int inStockCount) {}
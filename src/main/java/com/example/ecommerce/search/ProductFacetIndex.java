@@ -0,0 +1,366 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.event.ProductChangedEvent;
+import com.example.ecommerce.event.StockFlushedEvent;
+import com.example.ecommerce.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Faceted filtering over compressed (Roaring) bitmaps of product ids: one per category, one
+ * per price bucket, and one each for in-stock and active products.
+ *
+ * A filter is a handful of bitmap ORs/ANDs and every facet count is one AND-cardinality,
+ * with no per-request SQL. Bitmaps are updated incrementally from committed
+ * ProductChangedEvents and rebuilt from the database at startup.
+ *
+ * Product ids must fit in an int, which holds for the ids of the products table.
+ */
+@Slf4j
+@Component
+public class ProductFacetIndex {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /** Lower bounds of the price buckets, ascending; the last bucket is open-ended */
+    private final BigDecimal[] priceBounds;
+    private final int rebuildBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Bitmaps bitmaps;
+    // Changes to replay onto the rebuilt bitmaps; non-null while a rebuild is running, guarded by the write lock
+    private List<Consumer<Bitmaps>> pendingDuringRebuild;
+
+    public ProductFacetIndex(@Value("${app.facets.priceBuckets:0,10,25,50,100,250,500,1000}") BigDecimal[] priceBounds,
+                             @Value("${app.facets.rebuildBatchSize:20000}") int rebuildBatchSize) {
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.bitmaps = new Bitmaps(this.priceBounds.length);
+    }
+
+    public FacetResult filter(FacetQuery query) {
+        lock.readLock().lock();
+        try {
+            return bitmaps.filter(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Labels such as "25-50" and "1000+" for each price bucket, in bucket order */
+    public List<String> priceBucketLabels() {
+        List<String> labels = new ArrayList<>(priceBounds.length);
+        for (int i = 0; i < priceBounds.length; i++) {
+            labels.add(i + 1 < priceBounds.length
+                    ? priceBounds[i].toPlainString() + "-" + priceBounds[i + 1].toPlainString()
+                    : priceBounds[i].toPlainString() + "+");
+        }
+        return labels;
+    }
+
+    public void apply(ProductFacetRow product) {
+        lock.writeLock().lock();
+        try {
+            int bucket = bucketOf(product.price());
+            bitmaps.put(product, bucket);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(target -> target.put(product, bucket));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        apply(ProductFacetRow.removed(productId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.after() == null) {
+            remove(event.productId());
+        } else if (event.before() == null || event.categoryChanged() || event.priceChanged()
+                || event.stockChanged() || event.activeChanged()) {
+            apply(ProductFacetRow.of(event.after()));
+        }
+    }
+
+    /** Stock written behind by StockReservationEngine only moves products in or out of inStock */
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent event) {
+        long[] productIds = event.productIds();
+        int[] stockQuantities = event.stockQuantities();
+        Consumer<Bitmaps> change = target -> {
+            for (int i = 0; i < productIds.length; i++) {
+                target.setInStock(Math.toIntExact(productIds[i]), stockQuantities[i] > 0);
+            }
+        };
+        lock.writeLock().lock();
+        try {
+            change.accept(bitmaps);
+            if (pendingDuringRebuild != null) {
+                // The rebuild may have read these rows before the flush committed
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /** Rebuild from the database; filters keep using the current bitmaps until the swap */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                log.warn("Facet index rebuild already running");
+                return;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bitmaps rebuilt = new Bitmaps(priceBounds.length);
+        try {
+            long afterId = 0;
+            List<ProductFacetRow> batch;
+            do {
+                batch = productRepository.findFacetRowsAfter(afterId, Limit.of(rebuildBatchSize));
+                for (ProductFacetRow row : batch) {
+                    rebuilt.put(row, bucketOf(row.price()));
+                    afterId = row.id();
+                }
+            } while (batch.size() == rebuildBatchSize);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(change -> change.accept(rebuilt));
+            pendingDuringRebuild = null;
+            rebuilt.runOptimize();
+            bitmaps = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Facet index rebuilt: {} products in {} ms",
+                rebuilt.products.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Map<String, Long> stats() {
+        lock.readLock().lock();
+        try {
+            return Map.of(
+                    "products", (long) bitmaps.products.size(),
+                    "activeProducts", (long) bitmaps.active.getCardinality(),
+                    "categories", (long) bitmaps.byCategory.size(),
+                    "sizeInBytes", bitmaps.sizeInBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int bucketOf(BigDecimal price) {
+        if (price == null) {
+            return -1;
+        }
+        int bucket = -1;
+        for (int i = 0; i < priceBounds.length && price.compareTo(priceBounds[i]) >= 0; i++) {
+            bucket = i;
+        }
+        return bucket;
+    }
+
+    /** Where a product currently sits, so an update can clear its old bits */
+    private record Placement(Long categoryId, int bucket, boolean inStock, boolean active) {}
+
+    /** Not thread-safe; guarded by the index lock */
+    private static final class Bitmaps {
+        final Map<Integer, Placement> products = new HashMap<>();
+        final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+        final RoaringBitmap[] byPriceBucket;
+        final RoaringBitmap inStock = new RoaringBitmap();
+        final RoaringBitmap active = new RoaringBitmap();
+
+        Bitmaps(int buckets) {
+            byPriceBucket = new RoaringBitmap[buckets];
+            for (int i = 0; i < buckets; i++) {
+                byPriceBucket[i] = new RoaringBitmap();
+            }
+        }
+
+        void put(ProductFacetRow row, int bucket) {
+            int id = Math.toIntExact(row.id());
+            Placement old = products.remove(id);
+            if (old != null) {
+                clear(id, old);
+            }
+            if (row.isRemoved()) {
+                return;
+            }
+            products.put(id, new Placement(row.categoryId(), bucket, row.isInStock(), row.active()));
+            byCategory.computeIfAbsent(row.categoryId(), c -> new RoaringBitmap()).add(id);
+            if (bucket >= 0) {
+                byPriceBucket[bucket].add(id);
+            }
+            if (row.isInStock()) {
+                inStock.add(id);
+            }
+            if (row.active()) {
+                active.add(id);
+            }
+        }
+
+        void setInStock(int id, boolean isInStock) {
+            Placement old = products.get(id);
+            if (old == null || old.inStock() == isInStock) {
+                return;
+            }
+            products.put(id, new Placement(old.categoryId(), old.bucket(), isInStock, old.active()));
+            if (isInStock) {
+                inStock.add(id);
+            } else {
+                inStock.remove(id);
+            }
+        }
+
+        private void clear(int id, Placement old) {
+            RoaringBitmap category = byCategory.get(old.categoryId());
+            if (category != null) {
+                category.remove(id);
+                if (category.isEmpty()) {
+                    byCategory.remove(old.categoryId());
+                }
+            }
+            if (old.bucket() >= 0) {
+                byPriceBucket[old.bucket()].remove(id);
+            }
+            if (old.inStock()) {
+                inStock.remove(id);
+            }
+            if (old.active()) {
+                active.remove(id);
+            }
+        }
+
+        FacetResult filter(FacetQuery query) {
+            RoaringBitmap categories = union(query.categoryIds().stream()
+                    .map(byCategory::get).filter(Objects::nonNull).toList(), query.categoryIds().isEmpty());
+            List<RoaringBitmap> selectedBuckets = new ArrayList<>();
+            for (Integer bucket : query.priceBuckets()) {
+                if (bucket >= 0 && bucket < byPriceBucket.length) {
+                    selectedBuckets.add(byPriceBucket[bucket]);
+                }
+            }
+            RoaringBitmap prices = union(selectedBuckets, query.priceBuckets().isEmpty());
+            RoaringBitmap stock = query.inStockOnly() ? inStock : null;
+
+            // Each facet's counts use every selection except its own
+            RoaringBitmap forCategoryCounts = and(active, prices, stock);
+            RoaringBitmap forPriceCounts = and(active, categories, stock);
+            RoaringBitmap forStockCount = and(active, categories, prices);
+            RoaringBitmap matches = and(forCategoryCounts, categories, null);
+
+            Map<Long, Integer> categoryCounts = new LinkedHashMap<>();
+            for (Map.Entry<Long, RoaringBitmap> category : byCategory.entrySet()) {
+                int count = RoaringBitmap.andCardinality(forCategoryCounts, category.getValue());
+                if (count > 0) {
+                    categoryCounts.put(category.getKey(), count);
+                }
+            }
+            int[] bucketCounts = new int[byPriceBucket.length];
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                bucketCounts[i] = RoaringBitmap.andCardinality(forPriceCounts, byPriceBucket[i]);
+            }
+            int inStockCount = RoaringBitmap.andCardinality(forStockCount, inStock);
+
+            List<Long> page = new ArrayList<>(query.size());
+            PeekableIntIterator ids = matches.getIntIterator();
+            ids.advanceIfNeeded((int) Math.min(Integer.MAX_VALUE, query.afterId() + 1));
+            while (ids.hasNext() && page.size() < query.size()) {
+                page.add((long) ids.next());
+            }
+            Long nextAfterId = ids.hasNext() && !page.isEmpty() ? page.get(page.size() - 1) : null;
+            return new FacetResult(matches.getCardinality(), page, nextAfterId,
+                    categoryCounts, bucketCounts, inStockCount);
+        }
+
+        void runOptimize() {
+            byCategory.values().forEach(RoaringBitmap::runOptimize);
+            for (RoaringBitmap bucket : byPriceBucket) {
+                bucket.runOptimize();
+            }
+            inStock.runOptimize();
+            active.runOptimize();
+        }
+
+        long sizeInBytes() {
+            long bytes = inStock.getLongSizeInBytes() + active.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byCategory.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byPriceBucket) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        }
+
+        /** OR of the selected values; null (no filter) when nothing is selected */
+        private static RoaringBitmap union(List<RoaringBitmap> selected, boolean noSelection) {
+            if (noSelection) {
+                return null;
+            }
+            return selected.isEmpty() ? new RoaringBitmap() : FastAggregation.or(selected.iterator());
+        }
+
+        /** AND of the non-null arguments; base is never modified */
+        private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap first, RoaringBitmap second) {
+            RoaringBitmap result = base;
+            if (first != null) {
+                result = RoaringBitmap.and(result, first);
+            }
+            if (second != null) {
+                result = RoaringBitmap.and(result, second);
+            }
+            return result;
+        }
+    }
+}
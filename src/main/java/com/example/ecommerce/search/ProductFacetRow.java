@@ -0,0 +1,27 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.event.ProductSnapshot;
+
+import java.math.BigDecimal;
+
+/** The facet fields of a product, loaded by projection when the facet index is rebuilt */
+public record ProductFacetRow(Long id, Long categoryId, BigDecimal price, Integer stockQuantity, boolean active) {
+
+    public static ProductFacetRow of(ProductSnapshot product) {
+        return new ProductFacetRow(product.id(), product.categoryId(), product.price(),
+                product.stockQuantity(), product.active());
+    }
+
+    /** Marker row that takes a product out of the index */
+    public static ProductFacetRow removed(long productId) {
+        return new ProductFacetRow(productId, null, null, null, false);
+    }
+
+    public boolean isRemoved() {
+        return categoryId == null;
+    }
+
+    public boolean isInStock() {
+        return stockQuantity != null && stockQuantity > 0;
+    }
+}
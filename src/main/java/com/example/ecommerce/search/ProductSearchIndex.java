@@ -0,0 +1,448 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.event.ProductChangedEvent;
+import com.example.ecommerce.event.ProductSnapshot;
+import com.example.ecommerce.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the name and description of active products.
+ *
+ * Terms live in a sorted map so the last query word can be prefix-matched ("lapt" finds
+ * "laptop"); every query word must match (AND). Hits are ranked by TF-IDF, with name
+ * occurrences weighted above description occurrences and a length norm so short, focused
+ * products beat long descriptions that mention the word once.
+ *
+ * Posting lists are primitive arrays ordered by an internal ordinal, so a multi-word query
+ * is a merge that walks the rarest word's list and seeks forward in the others.
+ *
+ * Kept current from committed ProductChangedEvents; rebuilt from the database at startup
+ * with tokenization spread over all cores. Writes that commit during a rebuild are
+ * replayed onto the rebuilt index before it is swapped in.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    static final int NAME_WEIGHT = 3;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final int maxPrefixExpansions;
+    private final int rebuildBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+    // Non-null while a rebuild is running; guarded by the write lock
+    private List<ProductSnapshot> pendingDuringRebuild;
+    private volatile long lastRebuildMillis = -1;
+
+    public ProductSearchIndex(@Value("${app.search.maxPrefixExpansions:64}") int maxPrefixExpansions,
+                              @Value("${app.search.rebuildBatchSize:10000}") int rebuildBatchSize) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /** Ranked product ids for a free-text query, best first */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return data.search(words, limit, maxPrefixExpansions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Add, replace or remove one product according to its latest state */
+    public void apply(ProductSnapshot product) {
+        lock.writeLock().lock();
+        try {
+            data.apply(product);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        apply(new ProductSnapshot(productId, null, null, null, null, null, null, false));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductSnapshot before = event.before();
+        ProductSnapshot after = event.after();
+        if (after == null) {
+            remove(event.productId());
+        } else if (before == null || before.active() != after.active()
+                || !Objects.equals(before.name(), after.name())
+                || !Objects.equals(before.description(), after.description())) {
+            apply(after);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /** Rebuild from the database; searches keep using the current index until the swap */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                log.warn("Search index rebuild already running");
+                return;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData rebuilt = new IndexData();
+        try {
+            long afterId = 0;
+            List<ProductText> batch;
+            do {
+                batch = productRepository.findActiveTextAfter(afterId, Limit.of(rebuildBatchSize));
+                // Tokenizing is the expensive part and is independent per product
+                List<Doc> docs = batch.parallelStream()
+                        .map(p -> Doc.of(p.id(), p.name(), p.description()))
+                        .toList();
+                docs.forEach(rebuilt::put);
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == rebuildBatchSize);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(rebuilt::apply);
+            pendingDuringRebuild = null;
+            data = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Search index rebuilt: {} products, {} terms in {} ms",
+                rebuilt.docs.size(), rebuilt.terms.size(), lastRebuildMillis);
+    }
+
+    public Map<String, Long> stats() {
+        lock.readLock().lock();
+        try {
+            return Map.of(
+                    "products", (long) data.docs.size(),
+                    "terms", (long) data.terms.size(),
+                    "lastRebuildMillis", lastRebuildMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Terms of one product with their length-normalized TF weight */
+    record Doc(long productId, String[] terms, float[] weights) {
+
+        static Doc of(long productId, String name, String description) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : Tokenizer.tokenize(name)) {
+                frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+            }
+            for (String term : Tokenizer.tokenize(description)) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            String[] terms = new String[frequencies.size()];
+            float[] weights = new float[frequencies.size()];
+            double lengthNorm = 1.0 / Math.sqrt(Math.max(1, frequencies.size()));
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                terms[i] = entry.getKey();
+                weights[i] = (float) ((1 + Math.log(entry.getValue())) * lengthNorm);
+                i++;
+            }
+            return new Doc(productId, terms, weights);
+        }
+    }
+
+    /**
+     * Posting list of parallel primitive arrays in ordinal order. Ordinals only grow, so
+     * adding a product is an append; removed products are skipped via the deleted set
+     * until the next compaction.
+     */
+    static final class Postings {
+        private int[] ordinals = new int[2];
+        private float[] weights = new float[2];
+        private int size;
+
+        void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        void removeDeleted(BitSet deleted) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!deleted.get(ordinals[i])) {
+                    ordinals[kept] = ordinals[i];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /** First position at or after from whose ordinal is >= target (exponential then binary search) */
+        int seek(int from, int target) {
+            int bound = 1;
+            while (from + bound < size && ordinals[from + bound] < target) {
+                bound <<= 1;
+            }
+            int lo = from + (bound >>> 1);
+            int hi = Math.min(from + bound, size);
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ordinals[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Cursor over one query word: a single posting list, or for the prefix-matched last word
+     * all its expansions. A product matching several expansions scores its best one.
+     */
+    static final class ClauseCursor {
+        static final float MISS = -1f;
+        static final float EXHAUSTED = -2f;
+
+        final Postings[] lists;
+        final float[] idfs;
+        final int[] positions;
+        final long totalSize;
+
+        ClauseCursor(List<Postings> lists, List<Float> idfs) {
+            this.lists = lists.toArray(new Postings[0]);
+            this.idfs = new float[idfs.size()];
+            long total = 0;
+            for (int i = 0; i < this.idfs.length; i++) {
+                this.idfs[i] = idfs.get(i);
+                total += this.lists[i].size();
+            }
+            this.positions = new int[this.lists.length];
+            this.totalSize = total;
+        }
+
+        /** Score of the product with this ordinal; targets must be requested in ascending order */
+        float advanceTo(int ordinal) {
+            float best = MISS;
+            boolean exhausted = true;
+            for (int l = 0; l < lists.length; l++) {
+                Postings list = lists[l];
+                int position = list.seek(positions[l], ordinal);
+                positions[l] = position;
+                if (position < list.size) {
+                    exhausted = false;
+                    if (list.ordinals[position] == ordinal) {
+                        best = Math.max(best, list.weights[position] * idfs[l]);
+                    }
+                }
+            }
+            return exhausted ? EXHAUSTED : best;
+        }
+
+        /** Next ordinal present in any list after the previous one, or -1 when done */
+        int nextOrdinal(int after) {
+            int next = Integer.MAX_VALUE;
+            for (int l = 0; l < lists.length; l++) {
+                Postings list = lists[l];
+                int position = positions[l];
+                while (position < list.size && list.ordinals[position] <= after) {
+                    position++;
+                }
+                positions[l] = position;
+                if (position < list.size) {
+                    next = Math.min(next, list.ordinals[position]);
+                }
+            }
+            return next == Integer.MAX_VALUE ? -1 : next;
+        }
+    }
+
+    /** Not thread-safe; guarded by the index lock */
+    static final class IndexData {
+        private static final int MIN_DELETED_FOR_COMPACTION = 10_000;
+
+        final NavigableMap<String, Postings> terms = new TreeMap<>();
+        final Map<Long, Integer> docs = new HashMap<>();
+        private long[] productIds = new long[1024];
+        private final BitSet deleted = new BitSet();
+        private int nextOrdinal;
+        private int deletedSinceCompaction;
+
+        void apply(ProductSnapshot product) {
+            if (product.active()) {
+                put(Doc.of(product.id(), product.name(), product.description()));
+            } else {
+                remove(product.id());
+            }
+        }
+
+        /** Index a product under a fresh ordinal, replacing any previous version of it */
+        void put(Doc doc) {
+            remove(doc.productId());
+            int ordinal = nextOrdinal++;
+            if (ordinal == productIds.length) {
+                productIds = Arrays.copyOf(productIds, ordinal * 2);
+            }
+            productIds[ordinal] = doc.productId();
+            docs.put(doc.productId(), ordinal);
+            for (int i = 0; i < doc.terms().length; i++) {
+                terms.computeIfAbsent(doc.terms()[i], t -> new Postings()).add(ordinal, doc.weights()[i]);
+            }
+        }
+
+        void remove(long productId) {
+            Integer ordinal = docs.remove(productId);
+            if (ordinal == null) {
+                return;
+            }
+            deleted.set(ordinal);
+            deletedSinceCompaction++;
+            if (deletedSinceCompaction >= MIN_DELETED_FOR_COMPACTION && deletedSinceCompaction > docs.size() / 4) {
+                compact();
+            }
+        }
+
+        /** Drop removed products from the posting lists, so lists and document frequencies stay tight */
+        void compact() {
+            terms.values().removeIf(postings -> {
+                postings.removeDeleted(deleted);
+                return postings.size() == 0;
+            });
+            deletedSinceCompaction = 0;
+        }
+
+        /**
+         * Walks the rarest word's posting list and seeks the other words' lists forward to each
+         * of its products, so cost follows the most selective word rather than the catalog size.
+         */
+        List<SearchHit> search(List<String> words, int limit, int maxPrefixExpansions) {
+            List<ClauseCursor> clauses = new ArrayList<>(words.size());
+            for (int w = 0; w < words.size(); w++) {
+                ClauseCursor clause = clause(words.get(w), w == words.size() - 1, maxPrefixExpansions);
+                if (clause.lists.length == 0) {
+                    return List.of();
+                }
+                clauses.add(clause);
+            }
+            clauses.sort(Comparator.comparingLong(clause -> clause.totalSize));
+            ClauseCursor driver = clauses.get(0);
+
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+            int ordinal = -1;
+            candidates:
+            while ((ordinal = driver.nextOrdinal(ordinal)) >= 0) {
+                if (deleted.get(ordinal)) {
+                    continue;
+                }
+                float score = driver.advanceTo(ordinal);
+                for (int c = 1; c < clauses.size(); c++) {
+                    float clauseScore = clauses.get(c).advanceTo(ordinal);
+                    if (clauseScore == ClauseCursor.EXHAUSTED) {
+                        break candidates;
+                    }
+                    if (clauseScore == ClauseCursor.MISS) {
+                        continue candidates;
+                    }
+                    score += clauseScore;
+                }
+                if (top.size() < limit || score > top.peek().score()) {
+                    top.offer(new SearchHit(productIds[ordinal], score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            SearchHit[] ranked = new SearchHit[top.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = top.poll();
+            }
+            return Arrays.asList(ranked);
+        }
+
+        private ClauseCursor clause(String word, boolean prefix, int maxExpansions) {
+            Map<String, Postings> matches = prefix
+                    ? terms.subMap(word, true, word + Character.MAX_VALUE, false)
+                    : (terms.containsKey(word) ? Map.of(word, terms.get(word)) : Map.of());
+            List<Postings> lists = new ArrayList<>();
+            List<Float> idfs = new ArrayList<>();
+            for (Postings postings : matches.values()) {
+                lists.add(postings);
+                idfs.add((float) Math.log(1 + (double) docs.size() / postings.size()));
+                if (lists.size() == maxExpansions) {
+                    break;
+                }
+            }
+            return new ClauseCursor(lists, idfs);
+        }
+    }
+
+    // Lowest score first; among equal scores the higher product id is dropped first
+    private static final Comparator<SearchHit> WORST_FIRST = Comparator
+            .comparingDouble(SearchHit::score)
+            .thenComparing(Comparator.comparingLong(SearchHit::productId).reversed());
+}
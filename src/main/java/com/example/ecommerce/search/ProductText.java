@@ -0,0 +1,4 @@
+package com.example.ecommerce.search;
+
+/** The searchable fields of a product, loaded by projection when the index is rebuilt */
+public record ProductText(Long id, String name, String description) {}
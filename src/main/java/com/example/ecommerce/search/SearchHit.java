@@ -0,0 +1,3 @@
+package com.example.ecommerce.search;
+
+public record SearchHit(long productId, float score) {}
@@ -0,0 +1,54 @@
+package com.example.ecommerce.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into lower-case, accent-folded terms ("Điện Thoại" -> "dien", "thoai").
+ * Indexing and querying must use the same tokenizer.
+ */
+public final class Tokenizer {
+
+    static final int MIN_TOKEN_LENGTH = 2;
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private Tokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(fold(c));
+            } else {
+                flush(token, tokens);
+            }
+        }
+        flush(token, tokens);
+        return tokens;
+    }
+
+    private static char fold(char c) {
+        // đ/Đ carry a stroke, not a combining mark, so NFD leaves them alone
+        if (c == '\u0111' || c == '\u0110') {
+            return 'd';
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static void flush(StringBuilder token, List<String> tokens) {
+        if (token.length() >= MIN_TOKEN_LENGTH) {
+            tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token.toString());
+        }
+        token.setLength(0);
+    }
+}
@@ -2,19 +2,14 @@ package com.example.ecommerce.security;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletRequest;
-import jakarta.servlet.ServletResponse;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,16 +22,34 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private JWTUtils jwtUtils;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserSecurityVersionRegistry securityVersionRegistry;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    /** Build the Authentication from token claims alone instead of loading the User on every request */
+    @Value("${app.authClaimsOnly:false}")
+    private boolean claimsOnly;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if(jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            VerifiedToken verified = jwt != null ? verifyJwt(jwt) : null;
+            if(verified != null && tokenRevocationService.isRevoked(verified.tokenId())) {
+                verified = null;
+            }
+            if(verified != null && claimsOnly && verified.hasIdentityClaims()) {
+                authenticateFromClaims(verified);
+            } else if(verified != null) {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(verified.subject());
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -56,5 +69,28 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         return null;
     }
 
+    private void authenticateFromClaims(VerifiedToken verified) {
+        if (!securityVersionRegistry.isCurrent(verified.userId(), verified.securityVersion())) {
+            logger.debug("Rejecting token issued before the user's last security change");
+            return;
+        }
+        JwtPrincipal principal = new JwtPrincipal(verified.userId(), verified.subject(), verified.role());
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities()
+        );
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    /** Parse and verify the token once, then serve repeat requests from the verified-token cache */
+    private VerifiedToken verifyJwt(String jwt) {
+        VerifiedToken verified = verifiedTokenCache.get(jwt);
+        if (verified == null) {
+            verified = jwtUtils.parseVerifiedToken(jwt);
+            if (verified != null) {
+                verifiedTokenCache.put(jwt, verified);
+            }
+        }
+        return verified;
+    }
 
 }
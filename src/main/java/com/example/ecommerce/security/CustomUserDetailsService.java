@@ -1,6 +1,5 @@
 package com.example.ecommerce.security;
 
-import com.example.ecommerce.model.User;
 import com.example.ecommerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,11 +14,17 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.getUserByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-        return user;
+        UserPrincipal principal = userPrincipalCache.getOrLoad(username,
+                name -> userRepository.getUserByUsername(name).map(UserPrincipal::of).orElse(null));
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
+        return principal;
     }
 
 }
@@ -3,6 +3,7 @@ package com.example.ecommerce.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -10,45 +11,89 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
-import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 
 @Slf4j
 @Component
 public class JWTUtils {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_SECURITY_VERSION = "sv";
+
     @Value("${app.jwtSecret}")
     private String jwtSecret;
 
-    @Value("$app.jwtExpirationMs")
-    private String jwtExpirationMs;
+    @Value("${app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    // Decoding the secret and building the parser are not free; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
 
     public String generateJwtToken(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return generateTokenFromPrincipal(principal);
+        }
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         return generateTokenFromUserName(userDetails.getUsername());
     }
 
     public String generateTokenFromUserName(String username) {
-        return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(new Date().getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+        return tokenBuilder(username).compact();
+    }
+
+    /** Token that also carries id, role and security version, for claims-only authentication */
+    public String generateTokenFromPrincipal(UserPrincipal principal) {
+        return tokenBuilder(principal.username())
+                .claim(CLAIM_USER_ID, principal.id())
+                .claim(CLAIM_ROLE, principal.role().name())
+                .claim(CLAIM_SECURITY_VERSION, principal.securityVersion())
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    private JwtBuilder tokenBuilder(String username) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(username)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + jwtExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256);
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseVerifiedToken(authToken) != null;
+    }
+
+    /**
+     * Verify signature and expiry in a single parse.
+     * @return the token's subject and expiry, or null if the token is not valid
+     */
+    public VerifiedToken parseVerifiedToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            if (claims.getExpiration() == null) {
+                log.warn("JWT token has no expiration");
+                return null;
+            }
+            Number userId = claims.get(CLAIM_USER_ID, Number.class);
+            Number securityVersion = claims.get(CLAIM_SECURITY_VERSION, Number.class);
+            return new VerifiedToken(claims.getSubject(), claims.getId(), claims.getExpiration().toInstant(),
+                    userId != null ? userId.longValue() : null,
+                    claims.get(CLAIM_ROLE, String.class),
+                    securityVersion != null ? securityVersion.longValue() : null);
         } catch (MalformedJwtException e) {
             log.warn("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -57,7 +102,9 @@ public class JWTUtils {
             log.warn("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.warn("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.warn("JWT signature is invalid: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 }
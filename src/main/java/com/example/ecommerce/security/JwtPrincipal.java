@@ -0,0 +1,24 @@
+package com.example.ecommerce.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built purely from verified JWT claims in claims-only mode (app.authClaimsOnly=true).
+ * It deliberately holds no entity state: services needing the full User load it by id.
+ */
+public record JwtPrincipal(Long id, String username, String role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+}
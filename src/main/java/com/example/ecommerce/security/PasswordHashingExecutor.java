@@ -0,0 +1,139 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, size-limited pool for password hashing and matching.
+ *
+ * BCrypt is deliberately slow, so running it on Tomcat workers lets a login storm pin every
+ * request thread. Here at most app.passwordHashingThreads hashes run at once, at most
+ * app.passwordHashingQueueCapacity wait, and anything beyond that is rejected immediately
+ * with 503 - a login surge degrades logins only, not the rest of the API.
+ *
+ * The calling request thread still blocks until its hash is done, so admission is what bounds
+ * that wait: a request whose estimated queue wait (queued hashes times the average hash time,
+ * spread over the pool) already exceeds app.passwordHashingTimeoutMs is rejected up front
+ * instead of parking a worker for the full timeout. A caller that does time out withdraws its
+ * task if it has not started yet; a hash already running cannot be interrupted (BCrypt does
+ * not check for it) and finishes on its pool thread, so a timeout frees the caller, not
+ * pool capacity.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final long timeoutMs;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHashingExecutor(@Value("${app.passwordHashingThreads:0}") int threads,
+                                   @Value("${app.passwordHashingQueueCapacity:64}") int queueCapacity,
+                                   @Value("${app.passwordHashingTimeoutMs:5000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.poolSize = poolSize;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /** Run a hashing operation on the pool and wait for its result */
+    public <T> T execute(Supplier<T> hashOperation) {
+        if (estimatedWaitNanos() > TimeUnit.MILLISECONDS.toNanos(timeoutMs)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many concurrent sign-in attempts. Please try again shortly.");
+        }
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalQueueNanos.add(startedAt - submittedAt);
+                try {
+                    return hashOperation.get();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    totalHashNanos.add(elapsed);
+                    maxHashNanos.accumulate(elapsed);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many concurrent sign-in attempts. Please try again shortly.");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Only keeps a queued task from starting; a running hash completes regardless
+            future.cancel(false);
+            timedOut.increment();
+            throw new ServiceUnavailableException("Sign-in is taking too long. Please try again shortly.");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /** Time until a hash submitted now would start, assuming the average hash time so far */
+    private long estimatedWaitNanos() {
+        long done = completed.sum();
+        if (done == 0) {
+            return 0;
+        }
+        long ahead = executor.getQueue().size() + executor.getActiveCount() - poolSize + 1;
+        return ahead <= 0 ? 0 : ahead * (totalHashNanos.sum() / done) / poolSize;
+    }
+
+    public Map<String, Number> stats() {
+        long done = completed.sum();
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("completed", done);
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("avgHashMs", done == 0 ? 0.0 : totalHashNanos.sum() / 1_000_000.0 / done);
+        stats.put("maxHashMs", maxHashNanos.get() / 1_000_000.0);
+        stats.put("avgQueueWaitMs", done == 0 ? 0.0 : totalQueueNanos.sum() / 1_000_000.0 / done);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
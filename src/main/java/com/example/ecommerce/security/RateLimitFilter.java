@@ -0,0 +1,215 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.config.RateLimitProperties;
+import com.example.ecommerce.dto.error.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client throttling for the public endpoints, registered right after AuthTokenFilter
+ * so USER-keyed rules can see the authenticated username.
+ *
+ * Buckets live in a fixed number of stripes (independent ConcurrentHashMaps) keyed by
+ * rule + client. Each stripe is capped at app.rateLimit.maxBucketsPerStripe and swept for
+ * idle buckets on a schedule, so memory stays bounded even under a flood of distinct IPs.
+ *
+ * A full stripe only gives up buckets that have refilled completely: dropping one of those
+ * loses nothing. A partly drained bucket is never evicted, since its client would come back
+ * to a fresh, full bucket - flooding a stripe with new IPs would reset any limit. Clients that
+ * find no room share one overflow bucket per rule until buckets refill.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NO_ROOM_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private ConcurrentHashMap<String, TokenBucket>[] stripes;
+    // One per rule, shared by clients that found their stripe full of drained buckets
+    private TokenBucket[] overflowBuckets;
+    // Per stripe: before this instant a full stripe is not scanned again, as the last scan found nothing
+    private AtomicLongArray noRoomUntil;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    @Override
+    protected void initFilterBean() {
+        stripes = newStripes(properties.getStripes());
+        noRoomUntil = new AtomicLongArray(stripes.length);
+        long now = System.nanoTime();
+        overflowBuckets = new TokenBucket[properties.getRules().size()];
+        for (int i = 0; i < overflowBuckets.length; i++) {
+            RateLimitProperties.Rule rule = properties.getRules().get(i);
+            overflowBuckets[i] = new TokenBucket(rule.getCapacity(), rule.getRefillPerSecond(), now);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || properties.getRules().isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (int i = 0; i < properties.getRules().size(); i++) {
+            RateLimitProperties.Rule rule = properties.getRules().get(i);
+            if (pathMatcher.match(rule.getPattern(), path)) {
+                long now = System.nanoTime();
+                long waitNanos = bucketFor(i, rule, clientKey(rule, request), now).tryConsume(now);
+                if (waitNanos > 0) {
+                    rejected.increment();
+                    writeTooManyRequests(request, response, waitNanos);
+                    return;
+                }
+                allowed.increment();
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /** Drop buckets that have refilled completely and stayed untouched for the idle period */
+    @Scheduled(fixedDelayString = "${app.rateLimit.sweepIntervalMs:60000}")
+    public void evictIdleBuckets() {
+        long idleSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(properties.getIdleEvictionMs());
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            removeIdle(stripe, idleSince);
+        }
+    }
+
+    public long getAllowedCount() { return allowed.sum(); }
+
+    public long getRejectedCount() { return rejected.sum(); }
+
+    public long getEvictedCount() { return evicted.sum(); }
+
+    public long getOverflowCount() { return overflowed.sum(); }
+
+    public int getBucketCount() {
+        int count = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    private TokenBucket bucketFor(int ruleIndex, RateLimitProperties.Rule rule, String client, long now) {
+        String key = ruleIndex + ":" + client;
+        int stripeIndex = (key.hashCode() & Integer.MAX_VALUE) % stripes.length;
+        ConcurrentHashMap<String, TokenBucket> stripe = stripes[stripeIndex];
+        TokenBucket bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= properties.getMaxBucketsPerStripe() && !makeRoom(stripeIndex, now)) {
+            overflowed.increment();
+            return overflowBuckets[ruleIndex];
+        }
+        return stripe.computeIfAbsent(key, k -> new TokenBucket(rule.getCapacity(), rule.getRefillPerSecond(), now));
+    }
+
+    /**
+     * Free space in a full stripe by dropping the buckets that have refilled completely.
+     * Scans at most once per 100 ms while nothing could be freed, so a flood of new
+     * clients does not turn into a full scan per request.
+     *
+     * @return false if the stripe is still full
+     */
+    private boolean makeRoom(int stripeIndex, long now) {
+        if (noRoomUntil.get(stripeIndex) - now > 0) {
+            return false;
+        }
+        ConcurrentHashMap<String, TokenBucket> stripe = stripes[stripeIndex];
+        removeIdle(stripe, now);
+        if (stripe.size() < properties.getMaxBucketsPerStripe()) {
+            return true;
+        }
+        noRoomUntil.set(stripeIndex, now + NO_ROOM_BACKOFF_NANOS);
+        return false;
+    }
+
+    private void removeIdle(ConcurrentHashMap<String, TokenBucket> stripe, long idleSince) {
+        stripe.values().removeIf(bucket -> {
+            if (bucket.isIdleSince(idleSince)) {
+                evicted.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private String clientKey(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getKey() == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !"anonymousUser".equals(authentication.getPrincipal())) {
+                return "u:" + authentication.getName();
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma > 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void writeTooManyRequests(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "TOO_MANY_REQUESTS",
+                "Too many requests. Please retry after " + retryAfterSeconds + " seconds",
+                request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentHashMap<String, TokenBucket>[] newStripes(int count) {
+        ConcurrentHashMap<String, TokenBucket>[] stripes = new ConcurrentHashMap[Math.max(1, count)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        return stripes;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.exception.UnauthorizedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Access to the authenticated caller regardless of which principal type the filter installed
+ * (a cached UserPrincipal, or a JwtPrincipal in claims-only mode).
+ */
+public final class SecurityUtils {
+
+    private SecurityUtils() {}
+
+    public static Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.id();
+        }
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            return jwtPrincipal.id();
+        }
+        throw new UnauthorizedException();
+    }
+}
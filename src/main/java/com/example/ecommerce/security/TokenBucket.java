@@ -0,0 +1,52 @@
+package com.example.ecommerce.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in a single AtomicLong.
+ *
+ * Instead of storing a token count plus a refill timestamp, the bucket stores the
+ * "theoretical arrival time" (GCRA): the instant at which it would be completely full again.
+ * Taking a token pushes that instant one refill interval into the future; a request is
+ * allowed while the push stays within capacity * interval of now. This is exactly a token
+ * bucket of the given capacity and rate, updated with one CAS per request.
+ */
+public class TokenBucket {
+
+    private final AtomicLong fullAtNanos;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be greater than 0");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+        this.fullAtNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Try to take one token.
+     * @return 0 if granted, otherwise the nanoseconds to wait before a token is available
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long fullAt = fullAtNanos.get();
+            long base = fullAt - nowNanos > 0 ? fullAt : nowNanos;
+            long next = base + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAtNanos.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** True if the bucket has been full (untouched) since before the given instant */
+    public boolean isIdleSince(long nanos) {
+        return fullAtNanos.get() - nanos <= 0;
+    }
+}
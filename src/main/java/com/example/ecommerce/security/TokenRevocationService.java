@@ -0,0 +1,162 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.cache.BloomFilter;
+import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.model.RevokedToken;
+import com.example.ecommerce.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Denylist of revoked token ids ("jti").
+ *
+ * The revoked_tokens table is the source of truth. In memory we keep the exact set of
+ * unexpired ids plus a Bloom filter over them: AuthTokenFilter asks the Bloom filter first,
+ * and only a positive answer (a revoked token, or a rare false positive) touches the exact set.
+ * Bloom filters cannot delete, so pruning expired entries rebuilds the filter and swaps it in.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${app.tokenRevocationExpectedEntries:100000}")
+    private long expectedEntries;
+
+    @Value("${app.tokenRevocationFalsePositiveRate:0.01}")
+    private double falsePositiveRate;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    // Writers (revoke, rebuild) serialize on this lock so no revocation can slip between
+    // a rebuild's snapshot and the swap; readers never take it.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastSyncedAt = Instant.EPOCH;
+
+    private final LongAdder bloomNegatives = new LongAdder();
+    private final LongAdder bloomFalsePositives = new LongAdder();
+    private final LongAdder revokedHits = new LongAdder();
+
+    @PostConstruct
+    void loadFromDatabase() {
+        Instant now = Instant.now();
+        List<RevokedToken> active = revokedTokenRepository.findAllByExpiresAtAfter(now);
+        writeLock.lock();
+        try {
+            for (RevokedToken token : active) {
+                revoked.put(token.getTokenId(), token.getExpiresAt());
+            }
+            rebuildBloomFilter();
+            lastSyncedAt = now;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Loaded {} revoked tokens into the denylist", active.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (!bloomFilter.mightContain(tokenId)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        Instant expiresAt = revoked.get(tokenId);
+        if (expiresAt == null) {
+            bloomFalsePositives.increment();
+            return false;
+        }
+        revokedHits.increment();
+        return true;
+    }
+
+    /**
+     * Revoke a token until it expires.
+     *
+     * @throws BadRequestException if the token has no jti claim (issued before revocation
+     *         support): it cannot be denylisted, and reporting success would leave it usable
+     */
+    @Transactional
+    public void revoke(String rawToken, VerifiedToken token) {
+        if (token.tokenId() == null) {
+            log.warn("Cannot revoke token for '{}': it has no jti claim", token.subject());
+            throw new BadRequestException("This token cannot be revoked and stays valid until it expires. "
+                    + "Sign in again to get a token that can.");
+        }
+        revokedTokenRepository.save(RevokedToken.create(token.tokenId(), token.subject(), token.expiresAt()));
+        writeLock.lock();
+        try {
+            revoked.put(token.tokenId(), token.expiresAt());
+            bloomFilter.add(token.tokenId());
+        } finally {
+            writeLock.unlock();
+        }
+        verifiedTokenCache.invalidate(rawToken);
+    }
+
+    /** Pull revocations made by other instances since the last sync */
+    @Scheduled(fixedDelayString = "${app.tokenRevocationSyncMs:30000}")
+    public void syncFromDatabase() {
+        Instant now = Instant.now();
+        Instant since = lastSyncedAt;
+        List<RevokedToken> recent = revokedTokenRepository.findAllByRevokedAtAfterAndExpiresAtAfter(since.minusSeconds(5), now);
+        writeLock.lock();
+        try {
+            for (RevokedToken token : recent) {
+                if (revoked.putIfAbsent(token.getTokenId(), token.getExpiresAt()) == null) {
+                    bloomFilter.add(token.getTokenId());
+                }
+            }
+            lastSyncedAt = now;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${app.tokenRevocationPruneCron:0 */15 * * * *}")
+    @Transactional
+    public void pruneExpired() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        writeLock.lock();
+        try {
+            revoked.values().removeIf(expiresAt -> !now.isBefore(expiresAt));
+            rebuildBloomFilter();
+        } finally {
+            writeLock.unlock();
+        }
+        log.debug("Pruned {} expired revoked tokens, {} remain", deleted, revoked.size());
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "revokedTokens", (long) revoked.size(),
+                "bloomNegatives", bloomNegatives.sum(),
+                "bloomFalsePositives", bloomFalsePositives.sum(),
+                "revokedHits", revokedHits.sum());
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2L), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+    }
+}
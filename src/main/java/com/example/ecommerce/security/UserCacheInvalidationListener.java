@@ -0,0 +1,51 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps UserPrincipalCache and UserSecurityVersionRegistry
+ * consistent with writes to User.
+ * Hibernate resolves entity listeners through Spring, so this is a regular bean.
+ *
+ * The entry is evicted when the update is flushed and again after commit: a request that
+ * reloads the user between flush and commit still sees the old row and would otherwise
+ * re-cache stale authorities.
+ */
+@Component
+public class UserCacheInvalidationListener {
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private UserSecurityVersionRegistry securityVersionRegistry;
+
+    @PreUpdate
+    public void beforeUserUpdate(User user) {
+        userPrincipalCache.evictUser(user.getId());
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void afterUserWrite(User user) {
+        Long userId = user.getId();
+        userPrincipalCache.evictUser(userId);
+        securityVersionRegistry.evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    userPrincipalCache.evictUser(userId);
+                    securityVersionRegistry.evict(userId);
+                }
+            });
+        }
+    }
+}
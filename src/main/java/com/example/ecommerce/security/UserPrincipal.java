@@ -0,0 +1,48 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the security-relevant columns of a User, as cached by UserPrincipalCache
+ * and installed as the request principal. Unlike the entity it has no lazy associations and
+ * nothing a request could modify for the next one. Services needing the full User load it by id.
+ */
+public record UserPrincipal(Long id, String username, String password, User.Role role,
+                            boolean enabled, long securityVersion) implements UserDetails {
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                user.isEnabled(), user.getSecurityVersion());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal[id=" + id + ", username=" + username + ", role=" + role + "]";
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.cache.BoundedCache;
+import com.example.ecommerce.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Username -> UserPrincipal cache in front of UserRepository for the per-request principal lookup.
+ * Entries are dropped on any write to the user (see UserCacheInvalidationListener) and
+ * otherwise expire after app.userCacheTtlMs as a safety net for writes made outside JPA.
+ *
+ * Writes identify the user by id, so an id -> username index maps an eviction to its cache key
+ * without scanning; it also catches a renamed user still cached under the old name.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final BoundedCache<String, UserPrincipal> cache;
+    private final ConcurrentHashMap<Long, String> usernames = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public UserPrincipalCache(@Value("${app.userCacheMaxSize:10000}") int maxSize,
+                              @Value("${app.userCacheTtlMs:300000}") long ttlMs) {
+        this.cache = new BoundedCache<>(maxSize, Duration.ofMillis(ttlMs));
+        this.maxSize = maxSize;
+    }
+
+    public UserPrincipal getOrLoad(String username, Function<String, UserPrincipal> loader) {
+        UserPrincipal cached = cache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        UserPrincipal loaded = loader.apply(username);
+        if (loaded != null) {
+            // Cache before indexing, so pruneIndex never drops the entry for a live principal
+            cache.put(username, loaded);
+            String previous = usernames.put(loaded.id(), username);
+            if (previous != null && !previous.equals(username)) {
+                cache.invalidate(previous);
+            }
+            pruneIndex();
+        }
+        return loaded;
+    }
+
+    public void evictUser(Long userId) {
+        String username = usernames.remove(userId);
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        usernames.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public CacheStats.Snapshot stats() {
+        return cache.stats().snapshot();
+    }
+
+    /** Drop index entries whose principal the cache has since evicted or expired */
+    private void pruneIndex() {
+        if (usernames.size() > 2 * maxSize) {
+            usernames.entrySet().removeIf(e -> !cache.containsKey(e.getValue()));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.cache.BoundedCache;
+import com.example.ecommerce.cache.CacheStats;
+import com.example.ecommerce.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Current User.securityVersion per user id, used by claims-only authentication to reject
+ * tokens issued before a role change, password change or account disable.
+ *
+ * Lookups are a single-column query cached for app.securityVersionCacheTtlMs. Local writes
+ * evict immediately (UserCacheInvalidationListener); the TTL bounds how long a write made
+ * on another instance can go unnoticed.
+ */
+@Component
+public class UserSecurityVersionRegistry {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final BoundedCache<Long, Long> versions;
+
+    public UserSecurityVersionRegistry(@Value("${app.userCacheMaxSize:10000}") int maxSize,
+                                       @Value("${app.securityVersionCacheTtlMs:30000}") long ttlMs) {
+        this.versions = new BoundedCache<>(maxSize, Duration.ofMillis(ttlMs));
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long current = versions.getOrLoad(userId, id -> userRepository.findSecurityVersionById(id).orElse(null));
+        return current != null && current == tokenVersion;
+    }
+
+    public void evict(Long userId) {
+        versions.invalidate(userId);
+    }
+
+    public CacheStats.Snapshot stats() {
+        return versions.stats().snapshot();
+    }
+}
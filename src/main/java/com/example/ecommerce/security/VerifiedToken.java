@@ -0,0 +1,29 @@
+package com.example.ecommerce.security;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Result of a successful JWT signature/expiry check - everything the filter chain needs
+ * from a token without parsing it again.
+ *
+ * tokenId is the "jti" claim used for revocation; it is null on tokens issued before
+ * revocation support. userId, role and securityVersion are only present on tokens issued for a User principal;
+ * they are null on tokens that carry the subject alone.
+ */
+public record VerifiedToken(String subject, String tokenId, Instant expiresAt,
+                            Long userId, String role, Long securityVersion) {
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    public Duration remainingLifetime(Instant now) {
+        return Duration.between(now, expiresAt);
+    }
+
+    /** True if the token carries enough claims to authenticate without loading the user */
+    public boolean hasIdentityClaims() {
+        return userId != null && role != null && securityVersion != null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.cache.BoundedCache;
+import com.example.ecommerce.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Cache of tokens whose signature has already been verified, keyed by the raw compact JWT.
+ * An entry never outlives the token's own "exp" claim, so a cache hit is exactly as
+ * trustworthy as a fresh parse; size pressure evicts the least recently used tokens.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final BoundedCache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${app.jwtCacheMaxSize:10000}") int maxSize) {
+        this.cache = new BoundedCache<>(maxSize, null);
+    }
+
+    /** Return the verified token, or null if it has not been seen (or has expired since) */
+    public VerifiedToken get(String token) {
+        VerifiedToken verified = cache.get(token);
+        if (verified != null && verified.isExpired(Instant.now())) {
+            cache.invalidate(token);
+            return null;
+        }
+        return verified;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        cache.put(token, verified, verified.remainingLifetime(Instant.now()));
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(token);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public CacheStats.Snapshot stats() {
+        return cache.stats().snapshot();
+    }
+}
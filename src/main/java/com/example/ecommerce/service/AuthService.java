@@ -2,4 +2,7 @@ package com.example.ecommerce.service;
 
 public interface AuthService {
 
+    /** Revoke the given bearer token so it is rejected until it expires */
+    void logout(String token);
+
 }
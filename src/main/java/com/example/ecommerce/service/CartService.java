@@ -0,0 +1,32 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.cart.CartOperationRequest;
+import com.example.ecommerce.dto.cart.CartResponse;
+import com.example.ecommerce.dto.cart.CartSummaryResponse;
+
+import java.util.List;
+
+public interface CartService {
+
+    CartResponse getCart(Long userId);
+
+    /** Item count and subtotal from the carts row alone */
+    CartSummaryResponse getCartSummary(Long userId);
+
+    /** Add units to the cart (creating the cart on first use) and hold them */
+    CartResponse addItem(Long userId, Long productId, int quantity);
+
+    /** Set a line's quantity; 0 removes the line */
+    CartResponse updateItemQuantity(Long userId, Long productId, int quantity);
+
+    CartResponse removeItem(Long userId, Long productId);
+
+    /**
+     * Apply add/set/remove operations in order, in one transaction: products are loaded with
+     * one query, each touched line is held once for its final quantity, and the changes are
+     * flushed together. Any failing operation rejects the whole batch.
+     */
+    CartResponse applyOperations(Long userId, List<CartOperationRequest> operations);
+
+    void clearCart(Long userId);
+}
@@ -0,0 +1,37 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.catalog.CategoryResponse;
+import com.example.ecommerce.dto.catalog.FacetSearchResponse;
+import com.example.ecommerce.dto.catalog.ProductCursor;
+import com.example.ecommerce.dto.catalog.ProductResponse;
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.common.PageResponse;
+
+import java.util.List;
+import java.util.Set;
+
+public interface CatalogService {
+
+    ProductResponse getProduct(Long productId);
+
+    /** Active products of a category, ordered by id */
+    PageResponse<ProductResponse> getProductsByCategory(Long categoryId, int page, int size);
+
+    /**
+     * Keyset-paginated listing of active products, either one category in id order or all
+     * products by price. Cost per page does not depend on how deep the cursor is.
+     */
+    CursorPage<ProductResponse> listProducts(Long categoryId, ProductCursor.Sort sort, String cursor, int size);
+
+    /** Active products matching every word of the query (the last word as a prefix), best match first */
+    List<ProductResponse> searchProducts(String query, int limit);
+
+    /** Active products filtered by category, price bucket and stock, with facet counts */
+    FacetSearchResponse filterProducts(Set<Long> categoryIds, Set<Integer> priceBuckets, boolean inStockOnly,
+                                       long afterId, int size);
+
+    CategoryResponse getCategory(Long categoryId);
+
+    List<CategoryResponse> getAllCategories();
+
+}
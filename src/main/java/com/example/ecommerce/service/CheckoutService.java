@@ -0,0 +1,14 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.order.CheckoutRequest;
+import com.example.ecommerce.dto.order.CheckoutResponse;
+
+public interface CheckoutService {
+
+    /**
+     * Turn the user's cart into a PENDING order in one transaction: stock of every line is
+     * decremented, the order and its items are inserted and the cart is emptied, or nothing
+     * happens. Retried a bounded number of times when a concurrent stock write wins the race.
+     */
+    CheckoutResponse checkout(Long userId, CheckoutRequest request);
+}
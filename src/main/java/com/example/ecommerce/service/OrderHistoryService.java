@@ -0,0 +1,13 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.order.OrderSummaryResponse;
+
+public interface OrderHistoryService {
+
+    /**
+     * A user's orders, newest first, from the order_summaries read model: one indexed query
+     * per page however deep the cursor is.
+     */
+    CursorPage<OrderSummaryResponse> listOrders(Long userId, String cursor, int size);
+}
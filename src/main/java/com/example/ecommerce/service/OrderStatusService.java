@@ -0,0 +1,18 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.order.BulkTransitionReport;
+import com.example.ecommerce.model.Order;
+
+import java.util.List;
+
+public interface OrderStatusService {
+
+    /**
+     * Move orders through the statuses of path, one step after another, validated against
+     * OrderStateMachine. Orders are updated in chunks with one UPDATE per chunk, step and
+     * current status; an order that cannot make a step is reported and left where it is, and
+     * one already further along the path skips the steps behind it.
+     * Cancelled orders give their units back to StockReservationEngine.
+     */
+    BulkTransitionReport transitionAll(List<Long> orderIds, List<Order.OrderStatus> path);
+}
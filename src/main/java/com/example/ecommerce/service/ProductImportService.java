@@ -0,0 +1,17 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.catalog.ImportReport;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    enum Format { CSV, NDJSON }
+
+    /**
+     * Stream products from the input into the catalog in JDBC batches. Invalid rows are
+     * reported and skipped; valid rows are imported even when others fail.
+     */
+    ImportReport importProducts(InputStream input, Format format);
+
+}
@@ -1,4 +1,28 @@
 package com.example.ecommerce.service.ServiceImpl;
 
-public class AuthServiceImpl {
+import com.example.ecommerce.exception.UnauthorizedException;
+import com.example.ecommerce.security.JWTUtils;
+import com.example.ecommerce.security.TokenRevocationService;
+import com.example.ecommerce.security.VerifiedToken;
+import com.example.ecommerce.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AuthServiceImpl implements AuthService {
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Override
+    public void logout(String token) {
+        VerifiedToken verified = token != null ? jwtUtils.parseVerifiedToken(token) : null;
+        if (verified == null) {
+            throw new UnauthorizedException("Invalid or expired token");
+        }
+        tokenRevocationService.revoke(token, verified);
+    }
 }
@@ -0,0 +1,196 @@
+package com.example.ecommerce.service.ServiceImpl;
+
+import com.example.ecommerce.dto.cart.CartItemResponse;
+import com.example.ecommerce.dto.cart.CartOperationRequest;
+import com.example.ecommerce.dto.cart.CartResponse;
+import com.example.ecommerce.dto.cart.CartSummaryResponse;
+import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.exception.ResourceNotFoundException;
+import com.example.ecommerce.inventory.CartHoldService;
+import com.example.ecommerce.model.Cart;
+import com.example.ecommerce.model.CartItem;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.pricing.CartQuote;
+import com.example.ecommerce.pricing.ProductPriceTable;
+import com.example.ecommerce.repository.CartRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.UserRepository;
+import com.example.ecommerce.service.CartService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cart operations. Every quantity change is mirrored into a CartHoldService hold before the
+ * cart row changes, so a line that cannot be held is rejected up front instead of failing
+ * at checkout.
+ */
+@Service
+@Transactional
+public class CartServiceImpl implements CartService {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartHoldService cartHoldService;
+
+    @Autowired
+    private ProductPriceTable productPriceTable;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CartResponse getCart(Long userId) {
+        return cartRepository.findWithItemsByUserId(userId)
+                .map(this::toResponse)
+                .orElseGet(CartResponse::empty);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CartSummaryResponse getCartSummary(Long userId) {
+        return cartRepository.findSummaryByUserId(userId).orElseGet(CartSummaryResponse::empty);
+    }
+
+    @Override
+    public CartResponse addItem(Long userId, Long productId, int quantity) {
+        Product product = findAvailableProduct(productId);
+        Cart cart = findOrCreateCart(userId);
+        cartHoldService.hold(cart.getId(), productId, product.getName(), cart.getQuantity(productId) + quantity);
+        cart.addItem(product, quantity);
+        return toResponse(cart);
+    }
+
+    @Override
+    public CartResponse updateItemQuantity(Long userId, Long productId, int quantity) {
+        Cart cart = findCart(userId);
+        if (cart.getItem(productId) == null) {
+            throw new ResourceNotFoundException("Cart item", "productId", productId);
+        }
+        Product product = quantity > 0 ? findAvailableProduct(productId) : productRepository.getReferenceById(productId);
+        cartHoldService.hold(cart.getId(), productId, quantity > 0 ? product.getName() : null, quantity);
+        cart.updateItemQuantity(product, quantity);
+        return toResponse(cart);
+    }
+
+    @Override
+    public CartResponse removeItem(Long userId, Long productId) {
+        Cart cart = findCart(userId);
+        cartHoldService.release(cart.getId(), productId);
+        cart.removeItem(productRepository.getReferenceById(productId));
+        return toResponse(cart);
+    }
+
+    @Override
+    public CartResponse applyOperations(Long userId, List<CartOperationRequest> operations) {
+        Cart cart = findOrCreateCart(userId);
+
+        // Final quantity per touched product, in first-touched order
+        Map<Long, Integer> targets = new LinkedHashMap<>();
+        for (CartOperationRequest operation : operations) {
+            Long productId = operation.getProductId();
+            int current = targets.getOrDefault(productId, cart.getQuantity(productId));
+            targets.put(productId, switch (operation.getType()) {
+                case ADD -> current + operation.getQuantity();
+                case SET -> operation.getQuantity();
+                case REMOVE -> 0;
+            });
+        }
+
+        // One query for the products of new lines; existing lines already have theirs
+        List<Long> newProductIds = targets.entrySet().stream()
+                .filter(target -> target.getValue() > 0 && cart.getItem(target.getKey()) == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<Long, Product> newProducts = productRepository.findAllById(newProductIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        targets.forEach((productId, quantity) -> {
+            CartItem item = cart.getItem(productId);
+            if (item == null && quantity == 0) {
+                return;
+            }
+            Product product = item != null ? item.getProduct() : newProducts.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+            if (quantity > cart.getQuantity(productId) && !product.isActive()) {
+                throw new BadRequestException("Product '" + product.getName() + "' is not available");
+            }
+            cartHoldService.hold(cart.getId(), productId, product.getName(), quantity);
+            if (item != null) {
+                cart.updateItemQuantity(product, quantity);
+            } else {
+                cart.addItem(product, quantity);
+            }
+        });
+        return toResponse(cart);
+    }
+
+    @Override
+    public void clearCart(Long userId) {
+        cartRepository.findWithItemsByUserId(userId).ifPresent(cart -> {
+            for (CartItem item : cart.getItems()) {
+                cartHoldService.release(cart.getId(), item.getProductId());
+            }
+            cart.clear();
+        });
+    }
+
+    private Cart findOrCreateCart(Long userId) {
+        return cartRepository.findWithItemsByUserId(userId)
+                .orElseGet(() -> cartRepository.save(new Cart(userRepository.getReferenceById(userId))));
+    }
+
+    private Cart findCart(Long userId) {
+        return cartRepository.findWithItemsByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "userId", userId));
+    }
+
+    private Product findAvailableProduct(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        if (!product.isActive()) {
+            throw new BadRequestException("Product '" + product.getName() + "' is not available");
+        }
+        return product;
+    }
+
+    /**
+     * Prices every line from one ProductPriceTable read instead of each Product's price. A line
+     * the table does not know yet (it is still loading at startup) falls back to its entity.
+     */
+    private CartResponse toResponse(Cart cart) {
+        CartQuote quote = cart.quote(productPriceTable);
+        List<CartItemResponse> items = new ArrayList<>(cart.getItems().size());
+        BigDecimal total = BigDecimal.ZERO;
+        int line = 0;
+        for (CartItem item : cart.getItems()) {
+            Product product = item.getProduct();
+            BigDecimal unitPrice = quote.unitPrice(line++);
+            if (unitPrice == null) {
+                unitPrice = product.getPrice();
+            }
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
+            total = total.add(lineTotal);
+            CartHoldService.HoldStatus hold = cartHoldService.status(cart.getId(), item.getProductId());
+            items.add(new CartItemResponse(item.getProductId(), product.getName(), unitPrice, item.getQuantity(),
+                    lineTotal, hold != null ? hold.quantity() : 0, hold != null ? hold.expiresAt() : null));
+        }
+        return new CartResponse(cart.getId(), items, quote.totalItems(), total);
+    }
+}
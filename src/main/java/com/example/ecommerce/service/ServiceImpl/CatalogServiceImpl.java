@@ -0,0 +1,165 @@
+package com.example.ecommerce.service.ServiceImpl;
+
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.dto.catalog.CategoryResponse;
+import com.example.ecommerce.dto.catalog.FacetSearchResponse;
+import com.example.ecommerce.dto.catalog.ProductCursor;
+import com.example.ecommerce.dto.catalog.ProductResponse;
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.common.PageResponse;
+import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.exception.ResourceNotFoundException;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.FacetQuery;
+import com.example.ecommerce.search.FacetResult;
+import com.example.ecommerce.search.ProductFacetIndex;
+import com.example.ecommerce.search.ProductSearchIndex;
+import com.example.ecommerce.search.SearchHit;
+import com.example.ecommerce.service.CatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional(readOnly = true)
+public class CatalogServiceImpl implements CatalogService {
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Value("${app.catalogMaxPageSize:100}")
+    private int maxPageSize;
+
+    @Override
+    public ProductResponse getProduct(Long productId) {
+        return catalogCache.getProduct(productId, () -> productRepository.findWithCategoryById(productId)
+                .map(ProductResponse::from)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId)));
+    }
+
+    @Override
+    public PageResponse<ProductResponse> getProductsByCategory(Long categoryId, int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException("page must be >= 0");
+        }
+        validateSize(size);
+        return catalogCache.getCategoryListing(categoryId, page, size, () -> {
+            if (!categoryRepository.existsById(categoryId)) {
+                throw new ResourceNotFoundException("Category", "id", categoryId);
+            }
+            return PageResponse.from(productRepository.findActiveByCategoryId(categoryId,
+                    PageRequest.of(page, size, Sort.by("id"))), ProductResponse::from);
+        });
+    }
+
+    @Override
+    public CursorPage<ProductResponse> listProducts(Long categoryId, ProductCursor.Sort sort, String cursor, int size) {
+        validateSize(size);
+        ProductCursor after = cursor != null ? ProductCursor.decode(cursor, sort) : null;
+        // One extra row tells us whether there is a next page without a count query
+        Limit limit = Limit.of(size + 1);
+        List<Product> rows = switch (sort) {
+            case CATEGORY -> {
+                if (categoryId == null) {
+                    throw new BadRequestException("categoryId is required for this listing");
+                }
+                yield productRepository.findActiveByCategoryIdAfter(categoryId, after != null ? after.id() : 0L, limit);
+            }
+            case PRICE -> {
+                if (categoryId != null) {
+                    throw new BadRequestException("sort=price lists all categories; drop categoryId");
+                }
+                yield after == null
+                        ? productRepository.findActiveOrderByPrice(limit)
+                        : productRepository.findActiveOrderByPriceAfter(after.price(), after.id(), limit);
+            }
+        };
+        boolean hasMore = rows.size() > size;
+        List<ProductResponse> content = rows.stream().limit(size).map(ProductResponse::from).toList();
+        String nextCursor = hasMore ? ProductCursor.after(sort, content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, size, nextCursor, hasMore);
+    }
+
+    @Override
+    public List<ProductResponse> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("q must be between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        validateSize(limit);
+        List<ProductResponse> results = new ArrayList<>();
+        for (SearchHit hit : productSearchIndex.search(query, limit)) {
+            try {
+                results.add(getProduct(hit.productId()));
+            } catch (ResourceNotFoundException e) {
+                // Deleted after the index answered; the removal event is on its way
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public FacetSearchResponse filterProducts(Set<Long> categoryIds, Set<Integer> priceBuckets, boolean inStockOnly,
+                                              long afterId, int size) {
+        validateSize(size);
+        FacetResult result = productFacetIndex.filter(new FacetQuery(categoryIds, priceBuckets, inStockOnly, afterId, size));
+        List<ProductResponse> products = new ArrayList<>(result.productIds().size());
+        for (Long productId : result.productIds()) {
+            try {
+                products.add(getProduct(productId));
+            } catch (ResourceNotFoundException e) {
+                // Deleted after the bitmaps answered; the removal event is on its way
+            }
+        }
+        List<String> labels = productFacetIndex.priceBucketLabels();
+        List<FacetSearchResponse.PriceBucketCount> buckets = new ArrayList<>(labels.size());
+        for (int i = 0; i < labels.size(); i++) {
+            buckets.add(new FacetSearchResponse.PriceBucketCount(i, labels.get(i), result.priceBucketCounts()[i]));
+        }
+        return new FacetSearchResponse(products, result.totalMatches(), result.nextAfterId(),
+                result.categoryCounts(), buckets, result.inStockCount());
+    }
+
+    @Override
+    public CategoryResponse getCategory(Long categoryId) {
+        return catalogCache.getCategory(categoryId, () -> categoryRepository.findById(categoryId)
+                .map(CategoryResponse::from)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", categoryId)));
+    }
+
+    @Override
+    public List<CategoryResponse> getAllCategories() {
+        return catalogCache.getAllCategories(() -> categoryRepository.findAllByOrderByNameAsc().stream()
+                .map(CategoryResponse::from)
+                .toList());
+    }
+
+    private void validateSize(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("size must be between 1 and " + maxPageSize);
+        }
+    }
+}
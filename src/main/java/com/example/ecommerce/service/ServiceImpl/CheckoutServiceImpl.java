@@ -0,0 +1,169 @@
+package com.example.ecommerce.service.ServiceImpl;
+
+import com.example.ecommerce.dto.order.CheckoutRequest;
+import com.example.ecommerce.dto.order.CheckoutResponse;
+import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.exception.ConcurrentUpdateException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.exception.ResourceNotFoundException;
+import com.example.ecommerce.inventory.CartHoldService;
+import com.example.ecommerce.model.Cart;
+import com.example.ecommerce.model.CartItem;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.order.OrderSummaryProjector;
+import com.example.ecommerce.outbox.OutboxWriter;
+import com.example.ecommerce.repository.CartRepository;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.service.CheckoutService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cart to order in one transaction, without row locks.
+ *
+ * An attempt loads the cart with all its products in one query, validates every line in
+ * memory, tops each line's CartHoldService hold up to its quantity (the in-memory gate that
+ * keeps concurrent checkouts from overselling), then decrements Product stock, builds the
+ * order (with its order_summaries row and ORDER_PLACED outbox event) and empties the cart.
+ * All of that is written by a single flush: versioned stock UPDATEs and the order item
+ * INSERTs (pooled ids) go out as JDBC batches. If another transaction changed one of the
+ * products in between, the version check fails and the whole attempt is retried on fresh
+ * state, up to app.checkout.maxAttempts times, after which the caller gets a 409.
+ *
+ * After the commit the holds are released: the committed stock decrement reaches
+ * StockReservationEngine as a ProductChangedEvent first, so the available count dips by the
+ * order twice for a moment but never overstates stock. If the attempt rolls back, the holds go
+ * back to what they were before it. Everything else that follows from an order (notifications,
+ * analytics) runs off the outbox event, after the response has gone out.
+ */
+@Slf4j
+@Service
+public class CheckoutServiceImpl implements CheckoutService {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartHoldService cartHoldService;
+
+    @Autowired
+    private OrderSummaryProjector orderSummaryProjector;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.checkout.maxAttempts:3}")
+    private int maxAttempts;
+
+    @Override
+    public CheckoutResponse checkout(Long userId, CheckoutRequest request) {
+        long start = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            StageTimer timer = new StageTimer();
+            try {
+                Attempt result = transactionTemplate.execute(status -> placeOrder(userId, request, timer));
+                timer.stage("commit");
+                result.productIds().forEach(productId -> cartHoldService.release(result.cartId(), productId));
+                timer.stageMicros.put("total", (System.nanoTime() - start) / 1_000);
+
+                Order order = result.order();
+                log.info("Checkout of order {} ({} lines) took {} attempt(s): {}", order.getId(),
+                        result.productIds().size(), attempt, timer.stageMicros);
+                return new CheckoutResponse(order.getId(), order.getStatus(), order.getTotalAmount(),
+                        order.getTotalItems(), attempt, timer.stageMicros);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // The open persistence context (open-in-view) still holds the stale products
+                entityManager.clear();
+                if (attempt >= maxAttempts) {
+                    log.warn("Checkout for user {} gave up after {} conflicting attempts", userId, attempt);
+                    throw new ConcurrentUpdateException("Stock changed while checking out. Please try again.");
+                }
+                log.debug("Checkout for user {} conflicted on attempt {}: {}", userId, attempt, e.getMessage());
+            }
+        }
+    }
+
+    private Attempt placeOrder(Long userId, CheckoutRequest request, StageTimer timer) {
+        Cart cart = cartRepository.findWithItemsByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "userId", userId));
+        if (cart.getItems().isEmpty()) {
+            throw new BadRequestException("Cart is empty");
+        }
+        timer.stage("load");
+
+        for (CartItem item : cart.getItems()) {
+            Product product = item.getProduct();
+            if (!product.isActive()) {
+                throw new BadRequestException("Product '" + product.getName() + "' is not available");
+            }
+            if (!product.hasStock(item.getQuantity())) {
+                throw new InsufficientStockException(product.getName(), item.getQuantity(), product.getStockQuantity());
+            }
+        }
+        timer.stage("validate");
+
+        for (CartItem item : cart.getItems()) {
+            cartHoldService.hold(cart.getId(), item.getProductId(), item.getProduct().getName(), item.getQuantity());
+        }
+        timer.stage("hold");
+
+        Order order = new Order()
+                .setUser(cart.getUser())
+                .setShippingAddress(request.getShippingAddress())
+                .setPaymentMethod(request.getPaymentMethod())
+                .setOrderNotes(request.getOrderNotes());
+        List<Long> productIds = cart.getItems().stream().map(CartItem::getProductId).toList();
+        for (CartItem item : cart.getItems()) {
+            Product product = item.getProduct();
+            product.reduceStock(item.getQuantity());
+            order.addOrderItem(product, item.getQuantity(), product.getPrice());
+        }
+        order.setTotalAmount(order.calculateTotalAmount());
+        orderRepository.save(order);
+        orderSummaryProjector.orderPlaced(order);
+        outboxWriter.orderPlaced(order);
+        cart.clear();
+        timer.stage("build");
+
+        // Through the repository, so a version clash surfaces as ObjectOptimisticLockingFailureException
+        orderRepository.flush();
+        timer.stage("flush");
+        return new Attempt(order, cart.getId(), productIds);
+    }
+
+    private record Attempt(Order order, Long cartId, List<Long> productIds) {}
+
+    /** Microseconds per stage, each measured from the end of the previous one */
+    private static final class StageTimer {
+        final Map<String, Long> stageMicros = new LinkedHashMap<>();
+        long last = System.nanoTime();
+
+        void stage(String name) {
+            long now = System.nanoTime();
+            stageMicros.put(name, (now - last) / 1_000);
+            last = now;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ecommerce.service.ServiceImpl;
+
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.order.OrderCursor;
+import com.example.ecommerce.dto.order.OrderSummaryResponse;
+import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.repository.OrderSummaryRepository;
+import com.example.ecommerce.service.OrderHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class OrderHistoryServiceImpl implements OrderHistoryService {
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Value("${app.orderHistory.maxPageSize:50}")
+    private int maxPageSize;
+
+    @Override
+    public CursorPage<OrderSummaryResponse> listOrders(Long userId, String cursor, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("size must be between 1 and " + maxPageSize);
+        }
+        long beforeId = cursor != null ? OrderCursor.decode(cursor).orderId() : Long.MAX_VALUE;
+        // One extra row tells us whether there is a next page without a count query
+        List<OrderSummaryResponse> rows = orderSummaryRepository
+                .findByUserIdBefore(userId, beforeId, Limit.of(size + 1)).stream()
+                .map(OrderSummaryResponse::from)
+                .toList();
+        boolean hasMore = rows.size() > size;
+        List<OrderSummaryResponse> content = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? new OrderCursor(content.get(size - 1).getOrderId()).encode() : null;
+        return new CursorPage<>(content, size, nextCursor, hasMore);
+    }
+}
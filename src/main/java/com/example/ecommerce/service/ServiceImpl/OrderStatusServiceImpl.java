@@ -0,0 +1,161 @@
+package com.example.ecommerce.service.ServiceImpl;
+
+import com.example.ecommerce.dto.order.BulkTransitionReport;
+import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.inventory.StockReservationEngine;
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.order.OrderStateMachine;
+import com.example.ecommerce.order.OrderSummaryProjector;
+import com.example.ecommerce.order.OrderStatusRow;
+import com.example.ecommerce.order.ProductQuantityRow;
+import com.example.ecommerce.outbox.OutboxWriter;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.service.OrderStatusService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk order status transitions.
+ *
+ * Orders are processed in chunks of app.orders.bulkTransitionChunkSize, each step of a chunk in
+ * its own short transaction: lock the rows, read their statuses, check each against
+ * OrderStateMachine, then issue one UPDATE per current status for the orders that may move,
+ * with an ORDER_STATUS_CHANGED outbox event for each of them. Units of cancelled orders go
+ * back to stock_quantity in the same transaction, so a crash cannot keep the one without the
+ * other.
+ * Orders that may not are reported and drop out of the remaining steps. An order already in
+ * the step's status, or in one further along the path, counts as moved for that step, so a
+ * request can be repeated after a partial failure and picks each order up where it stopped.
+ * A chunk that fails is reported order by order and the next chunk carries on; chunks already
+ * committed stay committed.
+ */
+@Slf4j
+@Service
+public class OrderStatusServiceImpl implements OrderStatusService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+
+    @Autowired
+    private OrderSummaryProjector orderSummaryProjector;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.orders.bulkTransitionChunkSize:1000}")
+    private int chunkSize;
+
+    @Override
+    public BulkTransitionReport transitionAll(List<Long> orderIds, List<OrderStatus> path) {
+        for (int i = 1; i < path.size(); i++) {
+            if (!OrderStateMachine.canTransition(path.get(i - 1), path.get(i))) {
+                throw new BadRequestException("Invalid path: " + path.get(i - 1) + " cannot move to " + path.get(i));
+            }
+        }
+        long start = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        List<BulkTransitionReport.Failure> failures = new ArrayList<>();
+        int transitioned = 0;
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            for (int i = 0; i < path.size() && !chunk.isEmpty(); i++) {
+                List<Long> stepIds = chunk;
+                OrderStatus target = path.get(i);
+                Set<OrderStatus> ahead = EnumSet.noneOf(OrderStatus.class);
+                ahead.addAll(path.subList(i + 1, path.size()));
+                Step step;
+                try {
+                    step = transactionTemplate.execute(status -> step(stepIds, target, ahead));
+                } catch (RuntimeException e) {
+                    log.warn("Bulk order transition to {} failed for a chunk of {} orders: {}",
+                            target, stepIds.size(), e.getMessage());
+                    for (Long id : stepIds) {
+                        failures.add(new BulkTransitionReport.Failure(id, null, target,
+                                "Not moved to " + target + ": " + e.getMessage()));
+                    }
+                    chunk = List.of();
+                    break;
+                }
+                failures.addAll(step.failures());
+                chunk = step.moved();
+            }
+            transitioned += chunk.size();
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Bulk order transition {}: {} of {} orders moved, {} failed in {} ms",
+                path, transitioned, ids.size(), failures.size(), elapsedMillis);
+        return new BulkTransitionReport(ids.size(), transitioned, failures.size(), elapsedMillis, failures);
+    }
+
+    /** @param ahead statuses later in the path: orders already there skip this step */
+    private Step step(List<Long> ids, OrderStatus target, Set<OrderStatus> ahead) {
+        orderRepository.lockByIdIn(ids);
+        List<BulkTransitionReport.Failure> failures = new ArrayList<>();
+        List<Long> moved = new ArrayList<>(ids.size());
+        Map<OrderStatus, List<Long>> bySource = new EnumMap<>(OrderStatus.class);
+        Set<Long> found = new HashSet<>();
+        for (OrderStatusRow row : orderRepository.findStatusRowsByIdIn(ids)) {
+            found.add(row.id());
+            if (row.status() == target || ahead.contains(row.status())) {
+                moved.add(row.id());
+            } else if (OrderStateMachine.canTransition(row.status(), target)) {
+                bySource.computeIfAbsent(row.status(), status -> new ArrayList<>()).add(row.id());
+            } else {
+                failures.add(new BulkTransitionReport.Failure(row.id(), row.status(), target,
+                        "Cannot move from " + row.status() + " to " + target));
+            }
+        }
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                failures.add(new BulkTransitionReport.Failure(id, null, target, "Order not found"));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> updated = new ArrayList<>();
+        bySource.forEach((source, group) -> {
+            orderRepository.transitionStatus(group, source, target, now);
+            outboxWriter.statusChanged(group, source, target, now);
+            updated.addAll(group);
+        });
+        orderSummaryProjector.statusChanged(updated, target, now);
+        moved.addAll(updated);
+
+        if (target == OrderStatus.CANCELLED && !updated.isEmpty()) {
+            // Deleted products have no row left to update and are skipped
+            Map<Long, Integer> restock = new HashMap<>();
+            for (ProductQuantityRow row : orderRepository.sumQuantitiesByProduct(updated)) {
+                restock.put(row.productId(), row.quantity().intValue());
+            }
+            stockReservationEngine.restock(restock);
+        }
+        return new Step(moved, failures);
+    }
+
+    /** Orders that reached the target and orders that did not */
+    private record Step(List<Long> moved, List<BulkTransitionReport.Failure> failures) {}
+}
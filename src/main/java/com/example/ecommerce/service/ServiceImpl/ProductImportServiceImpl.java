@@ -0,0 +1,210 @@
+package com.example.ecommerce.service.ServiceImpl;
+
+import com.example.ecommerce.dto.catalog.ImportReport;
+import com.example.ecommerce.importer.CsvProductRowReader;
+import com.example.ecommerce.importer.NdjsonProductRowReader;
+import com.example.ecommerce.importer.ProductImportRow;
+import com.example.ecommerce.importer.ProductRowReader;
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.service.ProductImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import.
+ *
+ * Rows are read one at a time and inserted in batches of app.productImport.batchSize, each
+ * batch in its own transaction that is flushed and cleared afterwards, so memory stays flat
+ * however large the file is. Product ids come from a pooled table generator (see Product),
+ * which is what lets Hibernate send each batch as one JDBC batch instead of a round trip per
+ * row. A batch that fails at the database is retried row by row to pin down the bad rows.
+ */
+@Slf4j
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.productImport.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.productImport.maxReportedErrors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    public ImportReport importProducts(InputStream input, Format format) {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Category name -> id, including misses, for the duration of this import
+        Map<String, Optional<Long>> categoryIds = new HashMap<>();
+
+        try (ProductRowReader reader = open(input, format)) {
+            List<PendingProduct> batch = new ArrayList<>(batchSize);
+            ProductImportRow row;
+            while ((row = reader.next()) != null) {
+                progress.totalRows++;
+                PendingProduct pending = toProduct(row, categoryIds, progress);
+                if (pending != null) {
+                    batch.add(pending);
+                    if (batch.size() == batchSize) {
+                        insert(batch, transactionTemplate, progress);
+                        batch.clear();
+                    }
+                }
+            }
+            insert(batch, transactionTemplate, progress);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import input", e);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos > 0 ? progress.importedRows * 1e9 / elapsedNanos : 0;
+        log.info("Imported {} of {} products in {} ms ({} rows/s)", progress.importedRows, progress.totalRows,
+                elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new ImportReport(progress.totalRows, progress.importedRows, progress.failedRows,
+                elapsedNanos / 1_000_000, rowsPerSecond, progress.errors, progress.errorsTruncated);
+    }
+
+    private ProductRowReader open(InputStream input, Format format) throws IOException {
+        InputStreamReader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        return switch (format) {
+            case CSV -> new CsvProductRowReader(reader);
+            case NDJSON -> new NdjsonProductRowReader(reader, objectMapper);
+        };
+    }
+
+    /** Parse and validate one row; returns null (after recording the error) if it cannot be imported */
+    private PendingProduct toProduct(ProductImportRow row, Map<String, Optional<Long>> categoryIds, Progress progress) {
+        if (row.error() != null) {
+            progress.fail(row.line(), row.error(), maxReportedErrors);
+            return null;
+        }
+        BigDecimal price;
+        Integer stockQuantity;
+        try {
+            price = row.price() != null ? new BigDecimal(row.price()) : null;
+            stockQuantity = row.stockQuantity() != null ? Integer.valueOf(row.stockQuantity()) : null;
+        } catch (NumberFormatException e) {
+            progress.fail(row.line(), "price and stockQuantity must be numbers", maxReportedErrors);
+            return null;
+        }
+        Long categoryId = row.category() == null ? null : categoryIds
+                .computeIfAbsent(row.category().toLowerCase(Locale.ROOT),
+                        name -> categoryRepository.findByName(row.category()).map(Category::getId))
+                .orElse(null);
+        if (row.category() != null && categoryId == null) {
+            progress.fail(row.line(), "Unknown category '" + row.category() + "'", maxReportedErrors);
+            return null;
+        }
+
+        // Validate against the entity's own constraints; the category stub only satisfies @NotNull
+        Product product = Product.createWithImage(row.name(), row.description(), price, stockQuantity,
+                row.imageUrl(), categoryId != null ? new Category().setId(categoryId) : null);
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            progress.fail(row.line(), violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")), maxReportedErrors);
+            return null;
+        }
+        return new PendingProduct(row.line(), product, categoryId);
+    }
+
+    private void insert(List<PendingProduct> batch, TransactionTemplate transactionTemplate, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+            progress.importedRows += batch.size();
+        } catch (RuntimeException batchFailure) {
+            log.debug("Import batch failed, retrying row by row: {}", batchFailure.getMessage());
+            for (PendingProduct pending : batch) {
+                pending.product().setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(pending)));
+                    progress.importedRows++;
+                } catch (RuntimeException rowFailure) {
+                    progress.fail(pending.line(), rootMessage(rowFailure), maxReportedErrors);
+                }
+            }
+        }
+    }
+
+    private void persist(List<PendingProduct> batch) {
+        for (PendingProduct pending : batch) {
+            pending.product().setCategory(entityManager.getReference(Category.class, pending.categoryId()));
+            entityManager.persist(pending.product());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private record PendingProduct(long line, Product product, Long categoryId) {}
+
+    private static final class Progress {
+        long totalRows;
+        long importedRows;
+        long failedRows;
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+        boolean errorsTruncated;
+
+        void fail(long line, String message, int maxReportedErrors) {
+            failedRows++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReport.RowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
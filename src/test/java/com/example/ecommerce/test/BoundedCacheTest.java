@@ -0,0 +1,53 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.cache.BoundedCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testEntryExpiresAfterItsOwnLifetime() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, null, now::get);
+        cache.put("token", "alice", Duration.ofSeconds(5));
+
+        assertEquals("alice", cache.get("token"));
+
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertNull(cache.get("token"));
+        assertEquals(1, cache.stats().snapshot().expirations());
+    }
+
+    @Test
+    void testSizeBoundEvictsUnreferencedEntriesFirst() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(3, null, now::get);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        cache.get(1);
+
+        cache.put(4, 4);
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(1, cache.stats().snapshot().evictions());
+    }
+
+    @Test
+    void testHitAndMissCounters() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1), now::get);
+        cache.getOrLoad("a", key -> "A");
+        cache.getOrLoad("a", key -> "unused");
+
+        assertEquals(1, cache.stats().snapshot().hits());
+        assertEquals(1, cache.stats().snapshot().misses());
+        assertEquals(0.5, cache.stats().snapshot().hitRate());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.model.Cart;
+import com.example.ecommerce.model.CartItem;
+import com.example.ecommerce.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartTotalsTest {
+
+    private final Product pen = product(1L, "1.25");
+    private final Product book = product(2L, "19.90");
+
+    @Test
+    void testAddAccumulatesIntoExistingLine() {
+        Cart cart = new Cart();
+        cart.addItem(pen, 2);
+        cart.addItem(book, 1);
+        cart.addItem(pen, 3);
+
+        assertEquals(2, cart.getItems().size());
+        assertEquals(5, cart.getQuantity(1L));
+        assertTotals(cart, 6, "26.15");
+    }
+
+    @Test
+    void testUpdateAndRemoveApplyDeltas() {
+        Cart cart = new Cart();
+        cart.addItem(pen, 4);
+        cart.addItem(book, 2);
+
+        cart.updateItemQuantity(pen, 1);
+        assertTotals(cart, 3, "41.05");
+
+        cart.updateItemQuantity(book, 0);
+        assertNull(cart.getItem(2L));
+        assertTotals(cart, 1, "1.25");
+
+        cart.removeItem(pen);
+        assertTotals(cart, 0, "0.00");
+        // Unknown lines change nothing
+        cart.updateItemQuantity(book, 3);
+        cart.removeItem(book);
+        assertTotals(cart, 0, "0.00");
+    }
+
+    @Test
+    void testClearResetsTotals() {
+        Cart cart = new Cart();
+        cart.addItem(pen, 2);
+        cart.addItem(book, 2);
+
+        cart.clear();
+
+        assertTrue(cart.getItems().isEmpty());
+        assertTotals(cart, 0, "0");
+    }
+
+    @Test
+    void testRunningTotalsMatchLinesAfterManyChanges() {
+        Cart cart = new Cart();
+        Product[] products = {pen, book, product(3L, "0.99"), product(4L, "250.00")};
+        Random random = new Random(5);
+        for (int i = 0; i < 1_000; i++) {
+            Product product = products[random.nextInt(products.length)];
+            switch (random.nextInt(3)) {
+                case 0 -> cart.addItem(product, 1 + random.nextInt(5));
+                case 1 -> cart.updateItemQuantity(product, random.nextInt(6));
+                default -> cart.removeItem(product);
+            }
+        }
+
+        BigDecimal subtotal = cart.getItems().stream().map(CartItem::getTotalPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+        int totalItems = cart.getItems().stream().mapToInt(CartItem::getQuantity).sum();
+        assertEquals(0, subtotal.compareTo(cart.getTotalPrice()));
+        assertEquals(totalItems, cart.getTotalItems());
+    }
+
+    private static void assertTotals(Cart cart, int totalItems, String subtotal) {
+        assertEquals(totalItems, cart.getTotalItems());
+        assertEquals(0, new BigDecimal(subtotal).compareTo(cart.getTotalPrice()), "subtotal " + cart.getTotalPrice());
+    }
+
+    private static Product product(long id, String price) {
+        return new Product().setId(id).setName("Product " + id).setPrice(new BigDecimal(price));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.dto.catalog.ProductResponse;
+import com.example.ecommerce.dto.common.PageResponse;
+import com.example.ecommerce.event.ProductChangedEvent;
+import com.example.ecommerce.event.ProductSnapshot;
+import com.example.ecommerce.event.StockFlushedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+
+    private final CatalogCache cache = new CatalogCache(100, 100, 0);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testProductUpdateEvictsOnlyThatProductAndItsCategoryListing() {
+        warm();
+
+        ProductSnapshot before = snapshot(1L, 10L, "9.99");
+        ProductSnapshot after = snapshot(1L, 10L, "7.99");
+        cache.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, before, after));
+
+        loads.set(0);
+        warm();
+        // product 1 and the category 10 listing reload; product 2 and category 20 stay cached
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testCategoryMoveEvictsBothListings() {
+        warm();
+
+        ProductSnapshot before = snapshot(1L, 10L, "9.99");
+        ProductSnapshot after = snapshot(1L, 20L, "9.99");
+        cache.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, before, after));
+
+        loads.set(0);
+        warm();
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testLoadRacingWithEvictionIsNotStored() {
+        ProductSnapshot snapshot = snapshot(1L, 10L, "9.99");
+        cache.getProduct(1L, () -> {
+            cache.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, snapshot, snapshot));
+            return product(1L);
+        });
+
+        loads.set(0);
+        cache.getProduct(1L, () -> load(1L));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testLoadRacingWithAnotherProductsEvictionIsStored() {
+        ProductSnapshot other = snapshot(8L, 10L, "9.99");
+        cache.getProduct(7L, () -> {
+            cache.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, other, other));
+            return product(7L);
+        });
+
+        loads.set(0);
+        cache.getProduct(7L, () -> load(7L));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testStockFlushEvictsOnlyListingsShowingTheProduct() {
+        warm();
+
+        cache.onStockFlushed(new StockFlushedEvent(new long[]{2L}, new int[]{3}, new int[]{4}));
+
+        loads.set(0);
+        warm();
+        // product 2 and the category 20 listing showing it reload
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testListingLoadRacingWithStockFlushIsNotStored() {
+        cache.getCategoryListing(30L, 0, 20, () -> {
+            cache.onStockFlushed(new StockFlushedEvent(new long[]{5L}, new int[]{1}, new int[]{0}));
+            return listing(product(5L));
+        });
+
+        loads.set(0);
+        cache.getCategoryListing(30L, 0, 20, () -> listing(load(5L)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testStatsCoverEveryCache() {
+        assertEquals(List.of("catalogProducts", "catalogListings", "catalogCategories", "catalogCategoryLists"),
+                List.copyOf(cache.stats().keySet()));
+    }
+
+    private void warm() {
+        cache.getProduct(1L, () -> load(1L));
+        cache.getProduct(2L, () -> load(2L));
+        cache.getCategoryListing(10L, 0, 20, () -> listing(load(1L)));
+        cache.getCategoryListing(20L, 0, 20, () -> listing(load(2L)));
+    }
+
+    private ProductResponse load(Long id) {
+        loads.incrementAndGet();
+        return product(id);
+    }
+
+    private static ProductResponse product(Long id) {
+        return new ProductResponse(id, "p" + id, null, new BigDecimal("9.99"), 5, true, null, true, 10L, "c");
+    }
+
+    private static PageResponse<ProductResponse> listing(ProductResponse product) {
+        return new PageResponse<>(List.of(product), 0, 20, 1, 1);
+    }
+
+    private static ProductSnapshot snapshot(Long id, Long categoryId, String price) {
+        return new ProductSnapshot(id, categoryId, "p" + id, null, null, new BigDecimal(price), 5, true);
+    }
+}
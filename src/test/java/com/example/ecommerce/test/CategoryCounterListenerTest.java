@@ -0,0 +1,69 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.event.CategoryCounterListener;
+import com.example.ecommerce.event.StockFlushedEvent;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductFacetRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CategoryCounterListenerTest {
+
+    private CategoryCounterListener listener;
+    private CategoryRepository categoryRepository;
+    private ProductRepository productRepository;
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        productRepository = mock(ProductRepository.class);
+        catalogCache = mock(CatalogCache.class);
+        listener = new CategoryCounterListener();
+        ReflectionTestUtils.setField(listener, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(listener, "productRepository", productRepository);
+        ReflectionTestUtils.setField(listener, "catalogCache", catalogCache);
+        ReflectionTestUtils.setField(listener, "transactionManager", mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void testStockFlushMovesInStockCountsOnlyForZeroCrossings() {
+        when(productRepository.findFacetRowsByIdIn(Set.of(1L, 2L, 4L))).thenReturn(List.of(
+                row(1L, 10L, 3, true), row(2L, 10L, 0, true), row(4L, 20L, 5, false)));
+
+        // 1 comes back in stock, 2 sells out, 3 stays in stock, 4 is inactive
+        listener.onStockFlushed(new StockFlushedEvent(new long[]{1L, 2L, 3L, 4L},
+                new int[]{0, 2, 4, 0}, new int[]{3, 0, 6, 5}));
+
+        // Category 10 nets out to no change
+        verifyNoInteractions(categoryRepository);
+
+        when(productRepository.findFacetRowsByIdIn(Set.of(1L))).thenReturn(List.of(row(1L, 10L, 3, true)));
+        listener.onStockFlushed(new StockFlushedEvent(new long[]{1L}, new int[]{0}, new int[]{3}));
+
+        verify(categoryRepository).adjustProductCounts(10L, 0, 0, 1);
+        verify(catalogCache).evictCategoryCounts(10L);
+    }
+
+    @Test
+    void testStockFlushWithoutCrossingsReadsNothing() {
+        listener.onStockFlushed(new StockFlushedEvent(new long[]{1L}, new int[]{2}, new int[]{7}));
+
+        verifyNoInteractions(productRepository, categoryRepository);
+    }
+
+    private static ProductFacetRow row(long id, long categoryId, int stock, boolean active) {
+        return new ProductFacetRow(id, categoryId, new BigDecimal("9.99"), stock, active);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.dto.order.CheckoutRequest;
+import com.example.ecommerce.dto.order.CheckoutResponse;
+import com.example.ecommerce.exception.ConcurrentUpdateException;
+import com.example.ecommerce.inventory.CartHoldService;
+import com.example.ecommerce.inventory.StockReservationEngine;
+import com.example.ecommerce.model.Cart;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.order.OrderSummaryProjector;
+import com.example.ecommerce.outbox.OutboxWriter;
+import com.example.ecommerce.repository.CartRepository;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.service.ServiceImpl.CheckoutServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CheckoutServiceTest {
+
+    private static final long USER_ID = 7L;
+    private static final long CART_ID = 10L;
+
+    private CheckoutServiceImpl checkoutService;
+    private CartHoldService cartHoldService;
+    private StockReservationEngine stockReservationEngine;
+    private OrderRepository orderRepository;
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        stockReservationEngine = mock(StockReservationEngine.class);
+        when(stockReservationEngine.tryHold(anyLong(), anyInt())).thenReturn(true);
+        when(stockReservationEngine.available(anyLong())).thenReturn(100);
+        cartHoldService = new CartHoldService(1000);
+        ReflectionTestUtils.setField(cartHoldService, "stockReservationEngine", stockReservationEngine);
+        ReflectionTestUtils.setField(cartHoldService, "enabled", true);
+        ReflectionTestUtils.setField(cartHoldService, "ttlMillis", 900_000L);
+
+        CartRepository cartRepository = mock(CartRepository.class);
+        // Every attempt reads fresh state, as it would after entityManager.clear()
+        when(cartRepository.findWithItemsByUserId(USER_ID)).thenAnswer(invocation -> Optional.of(cart()));
+        orderRepository = mock(OrderRepository.class);
+        entityManager = mock(EntityManager.class);
+
+        checkoutService = new CheckoutServiceImpl();
+        ReflectionTestUtils.setField(checkoutService, "cartRepository", cartRepository);
+        ReflectionTestUtils.setField(checkoutService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(checkoutService, "cartHoldService", cartHoldService);
+        ReflectionTestUtils.setField(checkoutService, "orderSummaryProjector", mock(OrderSummaryProjector.class));
+        ReflectionTestUtils.setField(checkoutService, "outboxWriter", mock(OutboxWriter.class));
+        ReflectionTestUtils.setField(checkoutService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(checkoutService, "transactionManager", new NoOpTransactionManager());
+        ReflectionTestUtils.setField(checkoutService, "maxAttempts", 3);
+
+        // The shopper already holds one pen from adding it to the cart
+        cartHoldService.hold(CART_ID, 1L, "Pen", 1);
+        clearInvocations(stockReservationEngine);
+    }
+
+    @Test
+    void testVersionConflictIsRetriedOnFreshState() {
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L))
+                .doNothing()
+                .when(orderRepository).flush();
+
+        CheckoutResponse response = checkoutService.checkout(USER_ID, new CheckoutRequest());
+
+        assertEquals(2, response.getAttempts());
+        assertEquals(3, response.getTotalItems());
+        assertEquals(new BigDecimal("22.40"), response.getTotalAmount());
+        assertEquals(List.of("load", "validate", "hold", "build", "flush", "commit", "total"),
+                List.copyOf(response.getStageMicros().keySet()));
+        verify(entityManager, times(1)).clear();
+        verify(orderRepository, times(2)).save(any());
+        // Committed: the order's stock decrement replaces the holds
+        assertNull(cartHoldService.status(CART_ID, 1L));
+        assertNull(cartHoldService.status(CART_ID, 2L));
+    }
+
+    @Test
+    void testPersistentConflictEndsIn409AndRestoresHolds() {
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L)).when(orderRepository).flush();
+
+        assertThrows(ConcurrentUpdateException.class,
+                () -> checkoutService.checkout(USER_ID, new CheckoutRequest()));
+
+        verify(orderRepository, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        // Each rolled back attempt topped the holds up and then put them back
+        verify(stockReservationEngine, times(3)).tryHold(1L, 1);
+        verify(stockReservationEngine, times(3)).tryHold(2L, 1);
+        assertEquals(1, cartHoldService.status(CART_ID, 1L).quantity());
+        assertNull(cartHoldService.status(CART_ID, 2L));
+    }
+
+    private static Cart cart() {
+        Cart cart = new Cart();
+        cart.setId(CART_ID);
+        cart.addItem(product(1L, "Pen", "1.25"), 2);
+        cart.addItem(product(2L, "Book", "19.90"), 1);
+        return cart;
+    }
+
+    private static Product product(long id, String name, String price) {
+        return new Product().setId(id).setName(name).setPrice(new BigDecimal(price)).setStockQuantity(5).setActive(true);
+    }
+
+    /** Runs transaction synchronizations like a real manager, so rollback restores holds */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.importer.CsvProductRowReader;
+import com.example.ecommerce.importer.ProductImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvProductRowReaderTest {
+
+    @Test
+    void testMapsColumnsByHeaderInAnyOrder() throws IOException {
+        CsvProductRowReader reader = new CsvProductRowReader(new StringReader(
+                "Price,Name,Category,StockQuantity\n" +
+                "19.99,Mouse,Electronics,5\n"));
+
+        ProductImportRow row = reader.next();
+        assertEquals(2, row.line());
+        assertEquals("Mouse", row.name());
+        assertEquals("19.99", row.price());
+        assertEquals("5", row.stockQuantity());
+        assertEquals("Electronics", row.category());
+        assertNull(row.description());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testQuotedFieldsWithCommasQuotesAndNewlines() throws IOException {
+        CsvProductRowReader reader = new CsvProductRowReader(new StringReader(
+                "name,description,price\n" +
+                "\"Desk, oak\",\"Says \"\"sturdy\"\"\n2 drawers\",120\n" +
+                "Lamp,,15\n"));
+
+        ProductImportRow desk = reader.next();
+        assertEquals("Desk, oak", desk.name());
+        assertEquals("Says \"sturdy\"\n2 drawers", desk.description());
+        assertEquals("120", desk.price());
+
+        ProductImportRow lamp = reader.next();
+        assertEquals(4, lamp.line());
+        assertNull(lamp.description());
+    }
+
+    @Test
+    void testUnterminatedQuoteIsReportedAsMalformedRow() throws IOException {
+        CsvProductRowReader reader = new CsvProductRowReader(new StringReader(
+                "name,price\n" +
+                "\"Broken,10\n"));
+
+        ProductImportRow row = reader.next();
+        assertNotNull(row.error());
+        assertNull(row.name());
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.idempotency.IdempotencyFilter;
+import com.example.ecommerce.idempotency.IdempotencyStore;
+import com.example.ecommerce.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private static final String PATH = "/api/v1/cart/checkout";
+
+    private final IdempotencyFilter filter = new IdempotencyFilter();
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(repository.insertPending(anyString(), anyString(), any(), any())).thenReturn(1);
+        IdempotencyStore store = new IdempotencyStore(100, 60_000);
+        ReflectionTestUtils.setField(store, "repository", repository);
+        ReflectionTestUtils.setField(store, "staleClaimMillis", 60_000L);
+        ReflectionTestUtils.setField(filter, "idempotencyStore", store);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "paths", List.of(PATH));
+        ReflectionTestUtils.setField(filter, "waitTimeoutMillis", 1_000L);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "alice", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRetryReplaysTheRecordedResponse() throws Exception {
+        FilterChain chain = respond(201, "{\"orderId\":7}");
+
+        MockHttpServletResponse first = send("{\"a\":1}", chain);
+        MockHttpServletResponse retry = send("{\"a\":1}", chain);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("{\"orderId\":7}", retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testConcurrentUpdateConflictIsNotRecorded() throws Exception {
+        FilterChain chain = respond(409, "{\"status\":409,\"error\":\"CONCURRENT_UPDATE\"}");
+
+        assertEquals(409, send("{\"a\":1}", chain).getStatus());
+        assertEquals(409, send("{\"a\":1}", chain).getStatus());
+
+        assertEquals(2, executions.get());
+        verify(repository, times(2)).deletePending(anyString());
+        verify(repository, never()).complete(anyString(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void testThrottledAndServerErrorsAreNotRecordedButOtherConflictsAre() throws Exception {
+        send("{\"a\":1}", respond(429, ""));
+        send("{\"a\":1}", respond(503, ""));
+        assertEquals(2, executions.get());
+
+        FilterChain conflict = respond(409, "{\"status\":409,\"error\":\"USER_ALREADY_EXISTS\"}");
+        send("{\"a\":1}", conflict);
+        send("{\"a\":1}", conflict);
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void testReusedKeyWithDifferentBodyIsRejected() throws Exception {
+        FilterChain chain = respond(201, "{}");
+        send("{\"a\":1}", chain);
+
+        MockHttpServletResponse reused = send("{\"a\":2}", chain);
+
+        assertEquals(422, reused.getStatus());
+        assertTrue(reused.getContentAsString().contains("IDEMPOTENCY_KEY_REUSED"));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testBufferedBodySupportsNonBlockingReads() throws Exception {
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicInteger allDataRead = new AtomicInteger();
+        FilterChain chain = (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    read.write(in.readAllBytes());
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+            ((HttpServletResponse) response).setStatus(200);
+        };
+
+        send("{\"a\":1}", chain);
+
+        assertEquals("{\"a\":1}", read.toString(StandardCharsets.UTF_8));
+        assertEquals(1, allDataRead.get());
+    }
+
+    private FilterChain respond(int status, String body) {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(status);
+            http.setContentType("application/json");
+            http.getWriter().write(body);
+        };
+    }
+
+    private MockHttpServletResponse send(String body, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.addHeader(IdempotencyFilter.HEADER, "key-1");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.idempotency.IdempotencyStore;
+import com.example.ecommerce.idempotency.IdempotencyStore.Claim.Outcome;
+import com.example.ecommerce.idempotency.IdempotencyStore.StoredResponse;
+import com.example.ecommerce.model.IdempotencyRecord;
+import com.example.ecommerce.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.insertPending(anyString(), anyString(), any(), any())).thenReturn(1);
+        store = new IdempotencyStore(100, 60_000);
+        ReflectionTestUtils.setField(store, "repository", repository);
+        ReflectionTestUtils.setField(store, "staleClaimMillis", 60_000L);
+    }
+
+    @Test
+    void testConcurrentDuplicatesJoinTheInFlightExecution() throws Exception {
+        assertEquals(Outcome.EXECUTE, store.claim("k", "fp").outcome());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch claimed = new CountDownLatch(8);
+        List<Future<StoredResponse>> waiters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            waiters.add(executor.submit(() -> {
+                IdempotencyStore.Claim claim = store.claim("k", "fp");
+                claimed.countDown();
+                assertEquals(Outcome.REPLAY, claim.outcome());
+                return claim.response().get(5, TimeUnit.SECONDS);
+            }));
+        }
+        assertTrue(claimed.await(5, TimeUnit.SECONDS));
+        StoredResponse response = response("fp", 201, "{\"orderId\":7}");
+        store.complete("k", response);
+
+        for (Future<StoredResponse> waiter : waiters) {
+            assertSame(response, waiter.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        // Only the first request claimed the key in the table
+        verify(repository, times(1)).insertPending(eq("k"), eq("fp"), any(), any());
+        assertEquals(8L, (long) store.stats().get("joinedInFlight"));
+        assertEquals(0L, (long) store.stats().get("inFlight"));
+    }
+
+    @Test
+    void testAbandonWakesDuplicatesToClaimAgain() throws Exception {
+        assertEquals(Outcome.EXECUTE, store.claim("k", "fp").outcome());
+        IdempotencyStore.Claim duplicate = store.claim("k", "fp");
+        assertEquals(Outcome.REPLAY, duplicate.outcome());
+
+        store.abandon("k");
+
+        assertNull(duplicate.response().get(1, TimeUnit.SECONDS));
+        verify(repository).deletePending("k");
+        assertEquals(Outcome.EXECUTE, store.claim("k", "fp").outcome());
+    }
+
+    @Test
+    void testSameKeyWithDifferentBodyIsRejected() {
+        assertEquals(Outcome.EXECUTE, store.claim("k", "fp").outcome());
+        assertEquals(Outcome.KEY_REUSED, store.claim("k", "other").outcome());
+
+        store.complete("k", response("fp", 200, "{}"));
+        assertEquals(Outcome.KEY_REUSED, store.claim("k", "other").outcome());
+        assertEquals(Outcome.REPLAY, store.claim("k", "fp").outcome());
+        assertEquals(2L, (long) store.stats().get("keyReused"));
+    }
+
+    @Test
+    void testCompletedRowInTheTableIsReplayedAndCached() throws Exception {
+        when(repository.insertPending(anyString(), anyString(), any(), any())).thenReturn(0);
+        IdempotencyRecord record = new IdempotencyRecord()
+                .setRecordKey("k")
+                .setFingerprint("fp")
+                .setStatusCode(201)
+                .setContentType("application/json")
+                .setBody("{\"orderId\":7}".getBytes(StandardCharsets.UTF_8))
+                .setCreatedAt(Instant.now())
+                .setExpiresAt(Instant.now().plusSeconds(60));
+        when(repository.findById("k")).thenReturn(Optional.of(record));
+
+        IdempotencyStore.Claim claim = store.claim("k", "fp");
+
+        assertEquals(Outcome.REPLAY, claim.outcome());
+        StoredResponse replayed = claim.response().get();
+        assertEquals(201, replayed.status());
+        assertEquals("{\"orderId\":7}", new String(replayed.body(), StandardCharsets.UTF_8));
+
+        assertEquals(Outcome.REPLAY, store.claim("k", "fp").outcome());
+        verify(repository, times(1)).findById("k");
+    }
+
+    @Test
+    void testUnfinishedRowOfAnotherInstanceIsInProgress() {
+        when(repository.insertPending(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(repository.findById("k")).thenReturn(Optional.of(new IdempotencyRecord()
+                .setRecordKey("k").setFingerprint("fp")));
+
+        assertEquals(Outcome.IN_PROGRESS, store.claim("k", "fp").outcome());
+        assertEquals(0L, (long) store.stats().get("inFlight"));
+    }
+
+    private static StoredResponse response(String fingerprint, int status, String body) {
+        return new StoredResponse(fingerprint, status, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+}
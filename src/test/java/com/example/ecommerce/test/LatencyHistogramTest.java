@@ -0,0 +1,31 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.recordMicros(i * 100L);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(500.0, histogram.getPercentileMillis(50), 500.0 * 0.04);
+        assertEquals(990.0, histogram.getPercentileMillis(99), 990.0 * 0.04);
+        assertEquals(1000.0, histogram.getMaxMillis());
+        assertEquals(500.05, histogram.getMeanMillis(), 0.001);
+    }
+
+    @Test
+    void testEmptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0.0, histogram.getPercentileMillis(99));
+        assertEquals(0.0, histogram.getMeanMillis());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.exception.InvalidStateTransitionException;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.order.OrderStateMachine;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStateMachineTest {
+
+    @Test
+    void testHappyPathIsAllowedStepByStep() {
+        OrderStatus[] path = {OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PROCESSING,
+                OrderStatus.SHIPPED, OrderStatus.DELIVERED, OrderStatus.REFUNDED};
+        for (int i = 1; i < path.length; i++) {
+            assertTrue(OrderStateMachine.canTransition(path[i - 1], path[i]), path[i - 1] + " -> " + path[i]);
+        }
+        assertFalse(OrderStateMachine.canTransition(OrderStatus.PENDING, OrderStatus.SHIPPED));
+        assertFalse(OrderStateMachine.canTransition(OrderStatus.SHIPPED, OrderStatus.CONFIRMED));
+    }
+
+    @Test
+    void testOnlyEarlyOrdersCanBeCancelled() {
+        assertEquals(EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED), OrderStateMachine.sources(OrderStatus.CANCELLED));
+        assertTrue(OrderStateMachine.isFinal(OrderStatus.CANCELLED));
+        assertTrue(OrderStateMachine.isFinal(OrderStatus.REFUNDED));
+    }
+
+    @Test
+    void testSourcesMirrorTargets() {
+        for (OrderStatus from : OrderStatus.values()) {
+            for (OrderStatus to : OrderStatus.values()) {
+                assertEquals(OrderStateMachine.targets(from).contains(to), OrderStateMachine.sources(to).contains(from));
+            }
+        }
+    }
+
+    @Test
+    void testTablesAreReadOnly() {
+        Set<OrderStatus> targets = OrderStateMachine.targets(OrderStatus.PENDING);
+        assertThrows(UnsupportedOperationException.class, () -> targets.add(OrderStatus.DELIVERED));
+    }
+
+    @Test
+    void testOrderRejectsInvalidTransition() {
+        Order order = new Order();
+        order.cancel();
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        assertFalse(order.canBeCancelled());
+        assertThrows(InvalidStateTransitionException.class, () -> order.transitionTo(OrderStatus.CONFIRMED));
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.event.StockFlushedEvent;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.FacetQuery;
+import com.example.ecommerce.search.FacetResult;
+import com.example.ecommerce.search.ProductFacetIndex;
+import com.example.ecommerce.search.ProductFacetRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductFacetIndexTest {
+
+    private static final int CHEAP = 0;
+    private static final int MID = 1;
+    private static final int EXPENSIVE = 2;
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(new BigDecimal[]{new BigDecimal("0"), new BigDecimal("50"), new BigDecimal("500")}, 100);
+        index.apply(row(1, 10, "19.99", 5, true));
+        index.apply(row(2, 10, "79.00", 0, true));
+        index.apply(row(3, 20, "899.00", 2, true));
+        index.apply(row(4, 20, "49.99", 1, true));
+        index.apply(row(5, 20, "9.99", 3, false));
+    }
+
+    @Test
+    void testFilterCombinesFacetsAndCountsEachFacetWithoutItsOwnSelection() {
+        FacetResult result = index.filter(new FacetQuery(Set.of(20L), Set.of(CHEAP), true, 0, 10));
+
+        assertEquals(List.of(4L), result.productIds());
+        // Category counts ignore the category selection, price counts ignore the price selection
+        assertEquals(Map.of(10L, 1, 20L, 1), result.categoryCounts());
+        assertArrayEquals(new int[]{1, 0, 1}, result.priceBucketCounts());
+        assertEquals(1, result.inStockCount());
+    }
+
+    @Test
+    void testIncrementalUpdateMovesProductBetweenBitmaps() {
+        index.apply(row(2, 20, "29.00", 7, true));
+
+        FacetResult result = index.filter(new FacetQuery(Set.of(20L), Set.of(CHEAP), true, 0, 10));
+        assertEquals(List.of(2L, 4L), result.productIds());
+
+        index.remove(4L);
+        result = index.filter(new FacetQuery(Set.of(), Set.of(), false, 0, 10));
+        assertEquals(List.of(1L, 2L, 3L), result.productIds());
+        assertEquals(Map.of(10L, 1, 20L, 2), result.categoryCounts());
+    }
+
+    @Test
+    void testPagesInIdOrder() {
+        FacetResult first = index.filter(new FacetQuery(Set.of(), Set.of(), false, 0, 2));
+        assertEquals(List.of(1L, 2L), first.productIds());
+        assertEquals(4, first.totalMatches());
+
+        FacetResult second = index.filter(new FacetQuery(Set.of(), Set.of(), false, first.nextAfterId(), 2));
+        assertEquals(List.of(3L, 4L), second.productIds());
+        assertNull(second.nextAfterId());
+    }
+
+    @Test
+    void testStockFlushedDuringRebuildSurvivesTheSwap() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+        // The rebuild reads product 1 in stock; the flush that sells it out commits before the swap
+        when(productRepository.findFacetRowsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            index.onStockFlushed(new StockFlushedEvent(new long[]{1}, new int[]{5}, new int[]{0}));
+            return List.of(row(1, 10, "19.99", 5, true), row(4, 20, "49.99", 1, true));
+        });
+
+        index.rebuild();
+
+        FacetResult result = index.filter(new FacetQuery(Set.of(), Set.of(), true, 0, 10));
+        assertEquals(List.of(4L), result.productIds());
+    }
+
+    private static ProductFacetRow row(long id, long categoryId, String price, int stock, boolean active) {
+        return new ProductFacetRow(id, categoryId, new BigDecimal(price), stock, active);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.event.StockFlushedEvent;
+import com.example.ecommerce.pricing.CartQuote;
+import com.example.ecommerce.pricing.ProductPriceTable;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductFacetRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductPriceTableTest {
+
+    private ProductPriceTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = new ProductPriceTable(100);
+        table.apply(row(1, "19.99", 5, true));
+        table.apply(row(2, "0.50", 0, true));
+        table.apply(row(3, "899.00", 2, false));
+    }
+
+    @Test
+    void testLookupsInMinorUnits() {
+        assertEquals(1999, table.priceMinorUnits(1));
+        assertEquals(50, table.priceMinorUnits(2));
+        assertEquals(ProductPriceTable.NO_PRICE, table.priceMinorUnits(99));
+
+        assertEquals(5, table.availableStock(1));
+        assertEquals(0, table.availableStock(3), "inactive products cannot be sold");
+        assertEquals(0, table.availableStock(99));
+    }
+
+    @Test
+    void testQuoteTotalsCartAndFlagsUnavailableLines() {
+        CartQuote quote = table.quote(new long[]{1, 2, 3, 99}, new int[]{3, 1, 1, 2});
+
+        assertEquals(3 * 1999 + 50 + 89900, quote.totalMinorUnits());
+        assertEquals(new BigDecimal("959.47"), quote.total());
+        assertEquals(7, quote.totalItems());
+        assertArrayEquals(new long[]{2, 3, 99}, quote.unavailableProductIds());
+        assertFalse(quote.isAvailable());
+        assertEquals(new BigDecimal("19.99"), quote.unitPrice(0));
+        assertNull(quote.unitPrice(3));
+
+        assertTrue(table.quote(new long[]{1}, new int[]{5}).isAvailable());
+        assertFalse(table.quote(new long[]{1}, new int[]{6}).isAvailable());
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        table.apply(row(1, "17.50", 9, true));
+        table.remove(2);
+
+        assertEquals(1750, table.priceMinorUnits(1));
+        assertEquals(9, table.availableStock(1));
+        assertEquals(ProductPriceTable.NO_PRICE, table.priceMinorUnits(2));
+        assertEquals(2L, (long) table.stats().get("products"));
+    }
+
+    @Test
+    void testStockFlushedDuringRebuildSurvivesTheSwap() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ReflectionTestUtils.setField(table, "productRepository", productRepository);
+        // The rebuild reads product 1 with its old stock; the flush commits before the swap
+        when(productRepository.findFacetRowsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            table.onStockFlushed(new StockFlushedEvent(new long[]{1}, new int[]{5}, new int[]{2}));
+            return List.of(row(1, "19.99", 5, true));
+        });
+
+        table.rebuild();
+
+        assertEquals(2, table.availableStock(1));
+        assertEquals(1L, (long) table.stats().get("products"));
+    }
+
+    @Test
+    void testMatchesMapUnderRandomChurnAcrossResizes() {
+        Random random = new Random(7);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                table.remove(id);
+                expected.remove(id);
+            } else {
+                long cents = 1 + random.nextInt(100_000);
+                table.apply(row(id, BigDecimal.valueOf(cents, 2).toPlainString(), 1, true));
+                expected.put(id, cents);
+            }
+        }
+        expected.remove(1L);
+        expected.remove(2L);
+        expected.remove(3L);
+        for (long id = 4; id <= 5_000; id++) {
+            assertEquals((long) expected.getOrDefault(id, ProductPriceTable.NO_PRICE), table.priceMinorUnits(id), "id " + id);
+        }
+    }
+
+    private static ProductFacetRow row(long id, String price, int stock, boolean active) {
+        return new ProductFacetRow(id, 1L, new BigDecimal(price), stock, active);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.event.ProductSnapshot;
+import com.example.ecommerce.search.ProductSearchIndex;
+import com.example.ecommerce.search.SearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(64, 1000);
+        index.apply(product(1L, "Laptop Dell XPS 13", "Thin and light laptop for work", true));
+        index.apply(product(2L, "Laptop bag", "Padded bag that fits a 15 inch laptop, with pockets for a mouse and charger", true));
+        index.apply(product(3L, "Điện thoại Samsung", "Smartphone", true));
+        index.apply(product(4L, "Wireless mouse", "Quiet mouse for your laptop", false));
+    }
+
+    @Test
+    void testLastWordMatchesAsPrefixAndNameMatchesRankFirst() {
+        assertEquals(List.of(1L, 2L), ids(index.search("lapt", 10)));
+    }
+
+    @Test
+    void testEveryWordMustMatch() {
+        assertEquals(List.of(2L), ids(index.search("laptop bag", 10)));
+        assertEquals(List.of(), ids(index.search("laptop phone", 10)));
+    }
+
+    @Test
+    void testAccentsAndCaseAreFolded() {
+        assertEquals(List.of(3L), ids(index.search("DIEN thoai", 10)));
+    }
+
+    @Test
+    void testInactiveProductsAreNotIndexed() {
+        assertEquals(List.of(2L), ids(index.search("mouse", 10)));
+    }
+
+    @Test
+    void testUpdateReplacesTheIndexedText() {
+        index.apply(product(2L, "Backpack", "Travel backpack", true));
+
+        assertEquals(List.of(1L), ids(index.search("laptop", 10)));
+        assertEquals(List.of(2L), ids(index.search("backpack", 10)));
+
+        index.remove(2L);
+        assertEquals(List.of(), ids(index.search("backpack", 10)));
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::productId).toList();
+    }
+
+    private static ProductSnapshot product(Long id, String name, String description, boolean active) {
+        return new ProductSnapshot(id, 1L, name, description, null, null, 10, active);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.config.RateLimitProperties;
+import com.example.ecommerce.security.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    @Test
+    void testFullStripeNeverEvictsDrainedBuckets() throws Exception {
+        RateLimitFilter filter = filter(0.001);
+
+        assertEquals(200, send(filter, "10.0.0.1"));
+        assertEquals(429, send(filter, "10.0.0.1"));
+        assertEquals(200, send(filter, "10.0.0.2"));
+
+        // The stripe is full of drained buckets: new clients share the overflow bucket
+        assertEquals(200, send(filter, "10.0.0.3"));
+        assertEquals(429, send(filter, "10.0.0.4"));
+        // and the drained clients keep their limit instead of getting a fresh bucket
+        assertEquals(429, send(filter, "10.0.0.1"));
+        assertEquals(429, send(filter, "10.0.0.2"));
+
+        assertEquals(2, filter.getBucketCount());
+        assertEquals(0, filter.getEvictedCount());
+        assertEquals(2, filter.getOverflowCount());
+    }
+
+    @Test
+    void testRefilledBucketMakesRoomForANewClient() throws Exception {
+        RateLimitFilter filter = filter(1000);
+
+        assertEquals(200, send(filter, "10.0.0.1"));
+        assertEquals(200, send(filter, "10.0.0.2"));
+        Thread.sleep(10);
+
+        assertEquals(200, send(filter, "10.0.0.3"));
+        assertEquals(2, filter.getBucketCount());
+        assertEquals(0, filter.getOverflowCount());
+        assertTrue(filter.getEvictedCount() >= 1);
+    }
+
+    private static RateLimitFilter filter(double refillPerSecond) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setPattern("/api/**");
+        rule.setCapacity(1);
+        rule.setRefillPerSecond(refillPerSecond);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setStripes(1);
+        properties.setMaxBucketsPerStripe(2);
+        properties.setRules(List.of(rule));
+
+        RateLimitFilter filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.invokeMethod(filter, "initFilterBean");
+        return filter;
+    }
+
+    private static int send(RateLimitFilter filter, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
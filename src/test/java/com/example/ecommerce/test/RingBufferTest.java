@@ -0,0 +1,85 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.outbox.RingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void testCapacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<String>(0));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<String>(6));
+        assertEquals(8, new RingBuffer<String>(8).capacity());
+    }
+
+    @Test
+    void testPublishedItemsAreReadBySequence() {
+        RingBuffer<String> ring = new RingBuffer<>(4);
+        assertEquals(-1, ring.cursor());
+        assertTrue(ring.tryPublish("a", -1));
+        assertTrue(ring.tryPublish("b", -1));
+        assertEquals(1, ring.cursor());
+        assertEquals("a", ring.get(0));
+        assertEquals("b", ring.get(1));
+        assertEquals(2, ring.remainingCapacity(-1));
+    }
+
+    @Test
+    void testRefusesToOverwriteUnconsumedSlots() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.tryPublish(i, -1));
+        }
+        assertEquals(0, ring.remainingCapacity(-1));
+        assertFalse(ring.tryPublish(4, -1));
+        assertEquals(3, ring.cursor());
+
+        // Readers are past sequence 1: its slot and sequence 0's may be reused
+        assertTrue(ring.tryPublish(4, 1));
+        assertTrue(ring.tryPublish(5, 1));
+        assertFalse(ring.tryPublish(6, 1));
+        assertEquals(4, ring.get(4));
+        assertEquals(2, ring.get(2));
+    }
+
+    @Test
+    void testReaderSeesEveryItemInOrder() throws InterruptedException {
+        RingBuffer<Long> ring = new RingBuffer<>(16);
+        long total = 100_000;
+        AtomicLong readerSequence = new AtomicLong(-1);
+        AtomicReference<String> error = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            long next = 0;
+            while (next < total) {
+                long available = ring.cursor();
+                for (; next <= available; next++) {
+                    if (ring.get(next) != next) {
+                        error.set("sequence " + next + " held " + ring.get(next));
+                        return;
+                    }
+                }
+                readerSequence.set(next - 1);
+            }
+        });
+        reader.start();
+
+        for (long i = 0; i < total; ) {
+            if (ring.tryPublish(i, readerSequence.get())) {
+                i++;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        reader.join(10_000);
+
+        assertFalse(reader.isAlive());
+        assertNull(error.get());
+        assertEquals(total - 1, readerSequence.get());
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.event.ProductChangedEvent;
+import com.example.ecommerce.event.ProductSnapshot;
+import com.example.ecommerce.event.StockFlushedEvent;
+import com.example.ecommerce.inventory.StockReservationEngine;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductFacetRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockReservationEngineTest {
+
+    private StockReservationEngine engine;
+    private JdbcTemplate jdbcTemplate;
+    private ProductRepository productRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private final List<List<Object[]>> batches = new ArrayList<>();
+    // stock_quantity as the database has it
+    private final Map<Long, Integer> stored = new HashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        engine = new StockReservationEngine();
+        jdbcTemplate = mock(JdbcTemplate.class);
+        productRepository = mock(ProductRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            batches.add(new ArrayList<>(rows));
+            rows.forEach(row -> stored.merge((Long) row[1], (Integer) row[0], Integer::sum));
+            return new int[0];
+        });
+        when(productRepository.findFacetRowsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(stored::containsKey).map(id -> row(id, stored.get(id))).toList();
+        });
+        ReflectionTestUtils.setField(engine, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(engine, "productRepository", productRepository);
+        ReflectionTestUtils.setField(engine, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(engine, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(engine, "flushBatchSize", 1000);
+        ReflectionTestUtils.setField(engine, "loadBatchSize", 2);
+        created(1L, 1_000);
+        created(2L, 3);
+    }
+
+    @Test
+    void testConcurrentHoldsNeverOversell() throws InterruptedException {
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (engine.tryHold(1L, 1)) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1_000, granted.get());
+        assertEquals(0, engine.available(1L));
+        assertEquals(3_000L, (long) engine.stats().get("rejections"));
+        // Holds write nothing behind
+        assertEquals(0L, (long) engine.stats().get("dirtyProducts"));
+    }
+
+    @Test
+    void testReleaseAndEntityStockEditsMoveAvailability() {
+        assertTrue(engine.tryHold(2L, 2));
+        engine.release(2L, 1);
+        assertEquals(2, engine.available(2L));
+
+        // An admin restock through the entity applies as a delta on top of live holds
+        engine.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED,
+                snapshot(2L, 3), snapshot(2L, 13)));
+        assertEquals(12, engine.available(2L));
+        assertEquals(1L, (long) engine.stats().get("dirtyProducts"));
+    }
+
+    @Test
+    void testFlushWritesNetDeltasInIdOrderAndPublishesThem() {
+        engine.release(2L, 4);
+        engine.release(1L, 5);
+        engine.release(2L, 1);
+
+        engine.flush();
+
+        assertEquals(1, batches.size());
+        List<Object[]> rows = batches.get(0);
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{5, 1L}, rows.get(0));
+        assertArrayEquals(new Object[]{5, 2L}, rows.get(1));
+        assertEquals(0L, (long) engine.stats().get("dirtyProducts"));
+        verify(eventPublisher).publishEvent(argThat((StockFlushedEvent e) ->
+                e.productIds().length == 2 && stockOf(e, 2L) == 8 && stockOf(e, 1L) == 1_005));
+
+        // Nothing changed since: nothing is written
+        engine.flush();
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void testFlushPublishesOnHandStockNotWhatHoldsLeave() {
+        assertTrue(engine.tryHold(2L, 2));
+        engine.release(2L, 1);
+
+        engine.flush();
+
+        // A cart holding the remaining units must still see them in stock
+        assertEquals(2, engine.available(2L));
+        verify(eventPublisher).publishEvent(argThat((StockFlushedEvent e) ->
+                e.productIds().length == 1 && e.previousStockQuantities()[0] == 3 && e.stockQuantities()[0] == 4));
+    }
+
+    @Test
+    void testRestockWritesInTheCallersTransactionAndMovesCountersAfterCommit() {
+        assertTrue(engine.tryHold(2L, 3));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.restock(Map.of(2L, 4));
+
+            // Written, not left for the flush, but not sellable before the commit
+            assertArrayEquals(new Object[]{4, 2L}, batches.get(0).get(0));
+            assertEquals(0, engine.available(2L));
+            verifyNoInteractions(eventPublisher);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(4, engine.available(2L));
+        assertEquals(0L, (long) engine.stats().get("dirtyProducts"));
+        verify(eventPublisher).publishEvent(argThat((StockFlushedEvent e) ->
+                e.previousStockQuantities()[0] == 3 && e.stockQuantities()[0] == 7));
+    }
+
+    @Test
+    void testFailedFlushKeepsDeltasForTheNextOne() {
+        doThrow(new DataAccessResourceFailureException("down"))
+                .doAnswer(invocation -> {
+                    batches.add(invocation.getArgument(1));
+                    return new int[0];
+                })
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        engine.release(1L, 3);
+
+        engine.flush();
+        assertEquals(1L, (long) engine.stats().get("dirtyProducts"));
+        verifyNoInteractions(eventPublisher);
+
+        engine.release(1L, 2);
+        engine.flush();
+        assertArrayEquals(new Object[]{5, 1L}, batches.get(0).get(0));
+    }
+
+    @Test
+    void testFailingListenerDoesNotReapplyCommittedDeltas() {
+        doThrow(new IllegalStateException("listener")).when(eventPublisher).publishEvent(any(Object.class));
+        engine.release(1L, 3);
+
+        assertThrows(IllegalStateException.class, engine::flush);
+        assertEquals(0L, (long) engine.stats().get("dirtyProducts"));
+
+        engine.flush();
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void testStartupLoadRecoversStockWithoutOverwritingNewerCounters() {
+        StockReservationEngine recovered = new StockReservationEngine();
+        ReflectionTestUtils.setField(recovered, "productRepository", productRepository);
+        ReflectionTestUtils.setField(recovered, "loadBatchSize", 2);
+        when(productRepository.findFacetRowsAfter(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(row(1L, 7), row(2L, 0)));
+        when(productRepository.findFacetRowsAfter(eq(2L), any(Limit.class)))
+                .thenReturn(List.of(row(3L, 9)));
+        // Product 3 was created after the load started: its event wins over the older row
+        recovered.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, null, snapshot(3L, 4)));
+
+        recovered.loadOnStartup();
+
+        assertEquals(7, recovered.available(1L));
+        assertEquals(0, recovered.available(2L));
+        assertEquals(4, recovered.available(3L));
+        assertEquals(1L, (long) recovered.stats().get("loaded"));
+        assertEquals(3L, (long) recovered.stats().get("products"));
+    }
+
+    @Test
+    void testUnloadedProductIsReadOnDemand() {
+        when(productRepository.findStockQuantityById(42L)).thenReturn(Optional.of(6));
+
+        assertTrue(engine.tryHold(42L, 6));
+        assertFalse(engine.tryHold(42L, 1));
+        verify(productRepository, times(1)).findStockQuantityById(42L);
+    }
+
+    private void created(long id, int stock) {
+        stored.put(id, stock);
+        engine.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, null, snapshot(id, stock)));
+    }
+
+    private static int stockOf(StockFlushedEvent event, long productId) {
+        for (int i = 0; i < event.productIds().length; i++) {
+            if (event.productIds()[i] == productId) {
+                return event.stockQuantities()[i];
+            }
+        }
+        return -1;
+    }
+
+    private static ProductFacetRow row(long id, int stock) {
+        return new ProductFacetRow(id, 1L, new BigDecimal("9.99"), stock, true);
+    }
+
+    private static ProductSnapshot snapshot(long id, int stock) {
+        return new ProductSnapshot(id, 1L, "Product " + id, null, null, new BigDecimal("9.99"), stock, true);
+    }
+}
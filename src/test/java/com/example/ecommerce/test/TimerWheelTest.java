@@ -0,0 +1,101 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.inventory.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void testFiresOnFirstAdvancePastDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 1_000);
+        wheel.schedule("a", 1_025);
+        wheel.schedule("b", 1_030);
+
+        assertTrue(wheel.advance(1_020).isEmpty());
+        assertEquals(List.of("a", "b"), payloads(wheel.advance(1_030)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCancelledTimeoutNeverFires() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 0);
+        TimerWheel.Timeout<String> timeout = wheel.schedule("a", 50);
+        wheel.schedule("b", 50);
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        assertEquals(List.of("b"), payloads(wheel.advance(100)));
+    }
+
+    @Test
+    void testTimeoutCascadedOnItsDeadlineTickFiresOnThatTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.advance(1);
+        wheel.schedule("a", 64);
+
+        assertTrue(wheel.advance(63).isEmpty());
+        assertEquals(List.of("a"), payloads(wheel.advance(64)));
+    }
+
+    @Test
+    void testLevelBoundaryDeadlinesFireOnTheirExactTick() {
+        TimerWheel<Long> wheel = new TimerWheel<>(1, 0);
+        long[] deadlines = {63, 64, 65, 127, 128, 4_095, 4_096, 4_097, 4_160, 262_143, 262_144, 266_240};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        int fired = 0;
+        for (long now = 1; now <= 266_240; now++) {
+            for (TimerWheel.Timeout<Long> timeout : wheel.advance(now)) {
+                assertEquals(now, (long) timeout.payload(), "fired at tick " + now);
+                fired++;
+            }
+        }
+        assertEquals(deadlines.length, fired);
+    }
+
+    @Test
+    void testRandomDeadlinesAcrossAllLevelsFireExactlyOnTime() {
+        long tick = 10;
+        TimerWheel<Long> wheel = new TimerWheel<>(tick, 0);
+        Random random = new Random(11);
+        long horizon = tick * (1L << 20);
+        Set<Long> pending = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            long deadline = random.nextInt(4) == 0 ? random.nextLong(horizon * 20) : random.nextLong(horizon);
+            if (pending.add(deadline)) {
+                wheel.schedule(deadline, deadline);
+            }
+        }
+
+        long previousNow = 0;
+        long now = 0;
+        while (!pending.isEmpty()) {
+            now += 1 + random.nextLong(tick * 500);
+            for (TimerWheel.Timeout<Long> timeout : wheel.advance(now)) {
+                long deadline = timeout.payload();
+                long dueAt = (deadline + tick - 1) / tick * tick;
+                assertTrue(dueAt <= now, "fired early: " + deadline);
+                assertTrue(dueAt > previousNow, "fired late: " + deadline);
+                assertTrue(pending.remove(deadline));
+            }
+            previousNow = now;
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    private static <T> List<T> payloads(List<TimerWheel.Timeout<T>> timeouts) {
+        List<T> payloads = new ArrayList<>();
+        timeouts.forEach(timeout -> payloads.add(timeout.payload()));
+        return payloads;
+    }
+}
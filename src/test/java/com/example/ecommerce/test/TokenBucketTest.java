@@ -0,0 +1,43 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.security.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBurstUpToCapacityThenReject() {
+        TokenBucket bucket = new TokenBucket(3, 1.0, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+
+        long wait = bucket.tryConsume(0);
+        assertEquals(SECOND, wait);
+    }
+
+    @Test
+    void testRefillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(1, 2.0, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(SECOND / 4) > 0);
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+    }
+
+    @Test
+    void testIdleOnceFullyRefilled() {
+        TokenBucket bucket = new TokenBucket(2, 1.0, 0);
+        bucket.tryConsume(0);
+
+        assertFalse(bucket.isIdleSince(SECOND / 2));
+        assertTrue(bucket.isIdleSince(SECOND));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.exception.BadRequestException;
+import com.example.ecommerce.repository.RevokedTokenRepository;
+import com.example.ecommerce.security.TokenRevocationService;
+import com.example.ecommerce.security.VerifiedToken;
+import com.example.ecommerce.security.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private TokenRevocationService service;
+    private RevokedTokenRepository revokedTokenRepository;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(List.of());
+        verifiedTokenCache = mock(VerifiedTokenCache.class);
+        service = new TokenRevocationService();
+        ReflectionTestUtils.setField(service, "revokedTokenRepository", revokedTokenRepository);
+        ReflectionTestUtils.setField(service, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(service, "expectedEntries", 1_000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.invokeMethod(service, "loadFromDatabase");
+    }
+
+    @Test
+    void testRevokedTokenIsDeniedAndDroppedFromTheVerifiedCache() {
+        service.revoke("raw", token("jti-1"));
+
+        assertTrue(service.isRevoked("jti-1"));
+        assertFalse(service.isRevoked("jti-2"));
+        verify(revokedTokenRepository).save(any());
+        verify(verifiedTokenCache).invalidate("raw");
+    }
+
+    @Test
+    void testTokenWithoutJtiIsRejectedRatherThanReportedRevoked() {
+        assertThrows(BadRequestException.class, () -> service.revoke("raw", token(null)));
+
+        verify(revokedTokenRepository, never()).save(any());
+        verifyNoInteractions(verifiedTokenCache);
+    }
+
+    private static VerifiedToken token(String tokenId) {
+        return new VerifiedToken("alice", tokenId, Instant.now().plusSeconds(600), null, null, null);
+    }
+}
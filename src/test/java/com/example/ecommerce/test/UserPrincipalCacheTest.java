@@ -0,0 +1,57 @@
+package com.example.ecommerce.test;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.security.UserPrincipal;
+import com.example.ecommerce.security.UserPrincipalCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPrincipalCacheTest {
+
+    private final UserPrincipalCache cache = new UserPrincipalCache(100, 60_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testEvictUserDropsTheEntryCachedUnderItsUsername() {
+        cache.getOrLoad("alice", name -> load(1L, name));
+        cache.getOrLoad("bob", name -> load(2L, name));
+
+        cache.evictUser(1L);
+
+        assertEquals(1, cache.size());
+        cache.getOrLoad("alice", name -> load(1L, name));
+        cache.getOrLoad("bob", name -> load(2L, name));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testRenamedUserDoesNotSurviveUnderTheOldName() {
+        cache.getOrLoad("alice", name -> load(1L, name));
+        cache.getOrLoad("alicia", name -> load(1L, name));
+
+        assertEquals(1, cache.size());
+        cache.evictUser(1L);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testPrincipalIsASnapshotOfTheEntity() {
+        User user = User.createAdmin("admin", "admin@example.com", "hash", "A", "B").setId(7L);
+        UserPrincipal principal = cache.getOrLoad("admin", name -> UserPrincipal.of(user));
+
+        user.setRole(User.Role.USER).setPassword("changed");
+
+        assertEquals(User.Role.ADMIN, principal.role());
+        assertEquals("hash", principal.getPassword());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+        assertFalse(principal.toString().contains("hash"));
+    }
+
+    private UserPrincipal load(long id, String username) {
+        loads.incrementAndGet();
+        return new UserPrincipal(id, username, "hash", User.Role.USER, true, 0);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ecommerce.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * On Java 21 a virtual thread that blocks inside a synchronized block pins its carrier
+ * thread, which silently caps the virtual-thread mode at the carrier count. Our code uses
+ * j.u.c locks and atomics instead; this keeps it that way.
+ * Third-party pinning is reported at runtime by -Djdk.tracePinnedThreads (see the java21 profile).
+ */
+class VirtualThreadPinningTest {
+
+    private static final Pattern SYNCHRONIZED = Pattern.compile("\\bsynchronized\\b");
+
+    @Test
+    void testNoSynchronizedInApplicationCode() throws IOException {
+        try (Stream<Path> sources = Files.walk(Path.of("src/main/java"))) {
+            List<Path> offenders = sources
+                    .filter(path -> path.toString().endsWith(".java"))
+                    .filter(VirtualThreadPinningTest::usesSynchronized)
+                    .toList();
+            assertTrue(offenders.isEmpty(), "synchronized pins virtual threads; use a ReentrantLock in: " + offenders);
+        }
+    }
+
+    private static boolean usesSynchronized(Path source) {
+        try {
+            return Files.readAllLines(source).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.startsWith("*") && !line.startsWith("//"))
+                    .anyMatch(line -> SYNCHRONIZED.matcher(line).find());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}